@@ -0,0 +1,89 @@
+package com.storez.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Makes sure only one backend instance runs against a database.
+ *
+ * Several components keep state in memory and are only correct when they see every write: the data
+ * versions behind the ETags and the catalog response cache, the analytics snapshot, the product sales
+ * rankings and their checkpoint, the suggestion index and the live order feed. A second instance would
+ * serve stale validators and overwrite the sales checkpoint, so startup takes a PostgreSQL advisory lock
+ * and fails when another instance holds it. The lock lives on a dedicated connection (outside the pool)
+ * and is released when that connection closes, on shutdown or if the process dies.
+ *
+ * storez.single-instance.enforce=false skips the check (tests running several application contexts).
+ */
+@Component
+public class SingleInstanceLock {
+
+    private static final Logger log = LoggerFactory.getLogger(SingleInstanceLock.class);
+
+    // Arbitrary application-wide key ("storez" in ASCII)
+    private static final long LOCK_KEY = 0x73746f72657aL;
+
+    private final DataSourceProperties dataSourceProperties;
+    private final boolean enforced;
+    private Connection connection;
+
+    public SingleInstanceLock(
+            DataSourceProperties dataSourceProperties,
+            @Value("${storez.single-instance.enforce:true}") boolean enforced
+    ) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.enforced = enforced;
+    }
+
+    @PostConstruct
+    public void acquire() throws SQLException {
+        if (!enforced) {
+            log.warn("Single-instance check disabled: in-memory caches assume no other instance writes to this database");
+            return;
+        }
+        connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+        boolean acquired;
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT pg_try_advisory_lock(" + LOCK_KEY + ")")) {
+            acquired = result.next() && result.getBoolean(1);
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        if (!acquired) {
+            connection.close();
+            throw new IllegalStateException("Another StoreZ backend is already running against this database; "
+                    + "the in-memory caches and rankings support a single instance only");
+        }
+        log.info("Single-instance lock acquired");
+    }
+
+    /** False when the check is disabled: other instances may be running against the same database. */
+    public boolean isHeld() {
+        return connection != null;
+    }
+
+    @PreDestroy
+    public void release() {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.warn("Could not close the single-instance lock connection", e);
+        }
+    }
+}
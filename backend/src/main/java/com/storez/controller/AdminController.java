@@ -1,22 +1,50 @@
 package com.storez.controller;
 
+import com.storez.dto.FieldSet;
 import com.storez.dto.MonthlySalesDTO;
+import com.storez.dto.OrderView;
 import com.storez.model.Order;
+import com.storez.model.OrderStatus;
 import com.storez.model.Product;
+import com.storez.model.RollupDimension;
 import com.storez.model.Supplier;
 import com.storez.model.User;
+import com.storez.repository.OrderItemRepository;
 import com.storez.repository.OrderRepository;
+import com.storez.repository.OrderSpecifications;
 import com.storez.repository.ProductRepository;
+import com.storez.repository.SalesRollupRepository.SalesBucket;
+import com.storez.repository.SupplierOrderRepository;
 import com.storez.repository.SupplierRepository;
 import com.storez.repository.UserRepository;
+import com.storez.service.AnalyticsSnapshotService;
+import com.storez.service.CatalogResponseCache;
+import com.storez.service.DataVersions;
+import com.storez.service.OrderEventRelay;
+import com.storez.service.OrderFeedHub;
+import com.storez.service.OrderService;
+import com.storez.service.ProductCache;
+import com.storez.service.SalesRollupService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.time.LocalDateTime;
+import java.time.LocalDate;
 import java.time.format.TextStyle;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @RestController
@@ -29,6 +57,19 @@ public class AdminController {
     private final SupplierRepository supplierRepository;
     private final ProductRepository productRepository;
     private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final SupplierOrderRepository supplierOrderRepository;
+    private final ProductCache productCache;
+    private final CatalogResponseCache catalogResponseCache;
+    private final DataVersions dataVersions;
+    private final OrderEventRelay orderEventRelay;
+    private final OrderService orderService;
+    private final OrderFeedHub orderFeedHub;
+    private final SalesRollupService salesRollupService;
+    private final AnalyticsSnapshotService analyticsSnapshotService;
+
+    // Le navigateur garde la réponse mais la revalide à chaque fois (304 si rien n'a changé)
+    private static final CacheControl DASHBOARD_CACHE = CacheControl.noCache().cachePrivate();
 
     // Test endpoint pour vérifier l'authentification
     @GetMapping("/test")
@@ -46,85 +87,40 @@ public class AdminController {
         ));
     }
 
-    // Dashboard - Statistiques globales
+    // Dashboard - Statistiques globales, lues dans le dernier instantané calculé en arrière-plan
     @GetMapping("/dashboard")
-    public ResponseEntity<Map<String, Object>> getDashboard() {
-        Map<String, Object> stats = new HashMap<>();
-
-        long totalUsers = userRepository.count();
-        long totalSuppliers = supplierRepository.count();
-        long totalProducts = productRepository.count();
-        long totalOrders = orderRepository.count();
-
-        // Produits en attente d'approbation
-        long pendingProducts = productRepository.findAll().stream()
-                .filter(p -> "PENDING".equals(p.getStatus()))
-                .count();
-
-        // Suppliers en attente d'approbation
-        long pendingSuppliers = supplierRepository.findAll().stream()
-                .filter(s -> !s.isApproved())
-                .count();
-
-        // Revenue total (somme de toutes les commandes)
-        double totalRevenue = orderRepository.findAll().stream()
-                .flatMap(order -> order.getItems().stream())
-                .filter(item -> item.getProduct() != null)
-                .mapToDouble(item -> item.getProduct().getPrice() * item.getQuantity())
-                .sum();
-
-        // Revenue du mois en cours
-        LocalDateTime startOfMonth = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
-        double monthRevenue = orderRepository.findAll().stream()
-                .filter(order -> order.getCreatedAt().isAfter(startOfMonth))
-                .flatMap(order -> order.getItems().stream())
-                .filter(item -> item.getProduct() != null)
-                .mapToDouble(item -> item.getProduct().getPrice() * item.getQuantity())
-                .sum();
-
-        stats.put("totalUsers", totalUsers);
-        stats.put("totalSuppliers", totalSuppliers);
-        stats.put("totalProducts", totalProducts);
-        stats.put("totalOrders", totalOrders);
-        stats.put("pendingProducts", pendingProducts);
-        stats.put("pendingSuppliers", pendingSuppliers);
-        stats.put("totalRevenue", totalRevenue);
-        stats.put("monthRevenue", monthRevenue);
-
-        return ResponseEntity.ok(stats);
+    public ResponseEntity<Map<String, Object>> getDashboard(WebRequest webRequest) {
+        return snapshotResponse("dashboard", AnalyticsSnapshotService.Snapshot::dashboard, webRequest);
     }
 
-    // Analytics - Données pour graphiques
+    // Analytics - Données pour graphiques (même instantané)
     @GetMapping("/analytics")
-    public ResponseEntity<Map<String, Object>> getAnalytics() {
-        Map<String, Object> analytics = new HashMap<>();
-
-        // Commandes par statut
-        Map<String, Long> ordersByStatus = new HashMap<>();
-        orderRepository.findAll().forEach(order -> {
-            String status = order.getStatus().toString();
-            ordersByStatus.put(status, ordersByStatus.getOrDefault(status, 0L) + 1);
-        });
-
-        // Produits par catégorie
-        Map<String, Long> productsByCategory = new HashMap<>();
-        productRepository.findAll().forEach(product -> {
-            String category = product.getCategory();
-            productsByCategory.put(category, productsByCategory.getOrDefault(category, 0L) + 1);
-        });
+    public ResponseEntity<Map<String, Object>> getAnalytics(WebRequest webRequest) {
+        return snapshotResponse("analytics", AnalyticsSnapshotService.Snapshot::analytics, webRequest);
+    }
 
-        // Top 5 suppliers par nombre de produits
-        Map<String, Long> topSuppliers = new HashMap<>();
-        supplierRepository.findAll().forEach(supplier -> {
-            long productCount = productRepository.findBySupplierId(supplier.getId()).size();
-            topSuppliers.put(supplier.getCompanyName(), productCount);
-        });
+    // 🔄 Recalcul immédiat du dashboard et des analytics (sans attendre le prochain rafraîchissement)
+    @PostMapping("/analytics/refresh")
+    public ResponseEntity<Map<String, Object>> refreshAnalytics() {
+        analyticsSnapshotService.refreshNow();
+        return ResponseEntity.ok(analyticsSnapshotService.stats());
+    }
 
-        analytics.put("ordersByStatus", ordersByStatus);
-        analytics.put("productsByCategory", productsByCategory);
-        analytics.put("topSuppliers", topSuppliers);
+    // Cache - statistiques pour dimensionner les caches
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        Map<String, Object> stats = new HashMap<>(productCache.stats());
+        stats.put("catalogResponses", catalogResponseCache.stats());
+        stats.put("analyticsSnapshot", analyticsSnapshotService.stats());
+        return ResponseEntity.ok(stats);
+    }
 
-        return ResponseEntity.ok(analytics);
+    // Outbox - file d'événements de commande : retard (pending, oldestPendingSeconds), échecs, abonnés au flux
+    @GetMapping("/outbox/stats")
+    public ResponseEntity<Map<String, Object>> getOutboxStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(orderEventRelay.stats());
+        stats.put("orderFeed", orderFeedHub.stats());
+        return ResponseEntity.ok(stats);
     }
 
     // Users - Liste de tous les utilisateurs
@@ -189,69 +185,89 @@ public class AdminController {
         return ResponseEntity.ok(Map.of("message", "Supplier rejected"));
     }
 
-    // Orders - Liste de toutes les commandes
+    // Champs autorisés pour le tri des commandes (id en second critère pour un ordre stable)
+    private static final Set<String> ORDER_SORT_FIELDS = Set.of("createdAt", "total", "id");
+    private static final Sort ORDERS_NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // Orders - Liste des commandes (en-têtes et lignes projetés en deux requêtes)
+    // "fields=id,status,total" : les lignes ne sont lues que si items est demandé (le total est stocké)
+    // Filtres status, from/to (dates incluses), userId, supplierId et tri "sort=total,desc" exécutés par PostgreSQL
+    // Toujours paginé ("page" à partir de 1, 100 commandes au plus) ; "count=false" évite le COUNT et renvoie hasNext
     @GetMapping("/orders")
-    public ResponseEntity<List<Map<String, Object>>> getAllOrders() {
-        List<Order> orders = orderRepository.findAll();
-        List<Map<String, Object>> orderDtos = orders.stream().map(order -> {
-            Map<String, Object> dto = new HashMap<>();
-            dto.put("id", order.getId());
-            dto.put("createdAt", order.getCreatedAt());
-            dto.put("status", order.getStatus().name());
-
-            // User info
-            if (order.getUser() != null) {
-                Map<String, Object> userInfo = new HashMap<>();
-                userInfo.put("id", order.getUser().getId());
-                userInfo.put("name", order.getUser().getName());
-                userInfo.put("email", order.getUser().getEmail());
-                dto.put("user", userInfo);
+    public ResponseEntity<?> getAllOrders(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Long supplierId,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "true") boolean count) {
+        FieldSet fieldSet = FieldSet.parse(fields, OrderView.FIELDS);
+
+        OrderStatus statusFilter = null;
+        if (status != null && !status.isBlank()) {
+            try {
+                statusFilter = OrderStatus.valueOf(status);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(Map.of("message", "Invalid status"));
             }
+        }
 
-            // Calculate total
-            double total = order.getItems().stream()
-                    .filter(item -> item.getProduct() != null)
-                    .mapToDouble(item -> item.getProduct().getPrice() * item.getQuantity())
-                    .sum();
-            dto.put("total", total);
-
-            // Items
-            List<Map<String, Object>> items = order.getItems().stream().map(item -> {
-                Map<String, Object> itemDto = new HashMap<>();
-                itemDto.put("id", item.getId());
-                itemDto.put("quantity", item.getQuantity());
-                if (item.getProduct() != null) {
-                    Map<String, Object> productInfo = new HashMap<>();
-                    productInfo.put("id", item.getProduct().getId());
-                    productInfo.put("name", item.getProduct().getName());
-                    productInfo.put("price", item.getProduct().getPrice());
-                    itemDto.put("product", productInfo);
-                }
-                return itemDto;
-            }).collect(java.util.stream.Collectors.toList());
-            dto.put("items", items);
+        Specification<Order> spec = Specification
+                .where(OrderSpecifications.hasStatus(statusFilter))
+                .and(OrderSpecifications.createdFrom(from != null ? from.atStartOfDay() : null))
+                .and(OrderSpecifications.createdBefore(to != null ? to.plusDays(1).atStartOfDay() : null))
+                .and(OrderSpecifications.placedBy(userId))
+                .and(OrderSpecifications.hasPartFulfilledBy(supplierId));
+        Sort orderSort = parseOrderSort(sort);
+
+        Pageable pageable = PageRequest.of(Math.max(page, 1) - 1, Math.min(Math.max(size, 1), MAX_PAGE_SIZE), orderSort);
+        Map<String, Object> response = new HashMap<>();
+        Slice<OrderView> result;
+        if (count) {
+            Page<OrderView> counted = orderRepository.findViews(spec, pageable, fieldSet);
+            response.put("totalPages", counted.getTotalPages());
+            response.put("totalItems", counted.getTotalElements());
+            result = counted;
+        } else {
+            result = orderRepository.findViewSlice(spec, pageable, fieldSet);
+        }
+        List<OrderView> orders = result.getContent();
+        if (OrderView.needsLines(fieldSet) && !orders.isEmpty()) {
+            // Lignes de cette page uniquement, en une requête
+            List<Long> orderIds = orders.stream().map(OrderView::id).toList();
+            orders = OrderView.assemble(orders, orderItemRepository.findLinesByOrderIdIn(orderIds), fieldSet);
+        }
+        response.put("orders", orders);
+        response.put("currentPage", result.getNumber() + 1);
+        response.put("hasNext", result.hasNext());
+        return ResponseEntity.ok(response);
+    }
 
-            return dto;
-        }).collect(java.util.stream.Collectors.toList());
-        return ResponseEntity.ok(orderDtos);
+    // Flux temps réel des commandes (SSE) : nouvelles commandes et changements de statut
+    @GetMapping(value = "/orders/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrders() {
+        return orderFeedHub.subscribeAll();
     }
 
-    // Mettre à jour le statut d'une commande
+    // Mettre à jour le statut d'une commande (diffusé aux flux admin et fournisseurs)
     @PutMapping("/orders/{id}/status")
     public ResponseEntity<?> updateOrderStatus(
             @PathVariable Long id,
             @RequestParam String status) {
 
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
-
+        OrderStatus newStatus;
         try {
-            order.setStatus(com.storez.model.OrderStatus.valueOf(status));
-            orderRepository.save(order);
-            return ResponseEntity.ok(Map.of("message", "Order status updated"));
+            newStatus = OrderStatus.valueOf(status);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("message", "Invalid status"));
         }
+        orderService.updateStatus(id, newStatus);
+        return ResponseEntity.ok(Map.of("message", "Order status updated"));
     }
 
     // Supprimer un utilisateur
@@ -290,6 +306,7 @@ public class AdminController {
         if (!supplierProducts.isEmpty()) {
             productRepository.saveAll(supplierProducts);
         }
+        supplierOrderRepository.detachSupplier(id);
 
         supplierRepository.delete(supplierOptional.get());
         return ResponseEntity.ok(Map.of("message", "Supplier deleted successfully"));
@@ -301,41 +318,109 @@ public class AdminController {
      * @return List of MonthlySalesDTO containing month name and total sales
      */
     @GetMapping("/analytics/sales-monthly")
-    public ResponseEntity<List<MonthlySalesDTO>> getMonthlySales() {
-        // Get all orders
-        List<Order> allOrders = orderRepository.findAll();
-
-        // Calculate the date 12 months ago
-        LocalDateTime twelveMonthsAgo = LocalDateTime.now().minusMonths(12);
-
-        // Filter orders from the last 12 months and group by month
-        Map<String, Double> salesByMonth = allOrders.stream()
-                .filter(order -> order.getCreatedAt().isAfter(twelveMonthsAgo))
-                .collect(Collectors.groupingBy(
-                        order -> {
-                            // Format as "MMM" (e.g., "Jan", "Feb")
-                            return order.getCreatedAt().getMonth()
-                                    .getDisplayName(TextStyle.SHORT, Locale.ENGLISH);
-                        },
-                        Collectors.summingDouble(order ->
-                            order.getItems().stream()
-                                    .filter(item -> item.getProduct() != null)
-                                    .mapToDouble(item -> item.getQuantity() * item.getProduct().getPrice())
-                                    .sum()
-                        )
-                ));
-
-        // Create a list of the last 12 months in chronological order
+    public ResponseEntity<List<MonthlySalesDTO>> getMonthlySales(WebRequest webRequest) {
+        String etag = salesEtag("sales-monthly");
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        // Lu dans les agrégats mensuels (12 lignes au plus), sans charger les commandes
+        LocalDate firstMonth = LocalDate.now().withDayOfMonth(1).minusMonths(11);
+        Map<String, Double> salesByMonth = salesRollupService.buckets(RollupDimension.ALL, null, firstMonth,
+                        LocalDate.now(), SalesRollupService.Granularity.MONTH).stream()
+                .collect(Collectors.toMap(SalesBucket::getPeriod, SalesBucket::getRevenue));
+
+        // Les 12 derniers mois dans l'ordre chronologique ; chaque mois garde son année
         List<MonthlySalesDTO> monthlySales = new ArrayList<>();
-        LocalDateTime currentMonth = LocalDateTime.now();
+        for (int i = 0; i < 12; i++) {
+            LocalDate month = firstMonth.plusMonths(i);
+            String monthName = month.getMonth().getDisplayName(TextStyle.SHORT, Locale.ENGLISH);
+            monthlySales.add(new MonthlySalesDTO(monthName, salesByMonth.getOrDefault(month.toString(), 0.0)));
+        }
 
-        for (int i = 11; i >= 0; i--) {
-            LocalDateTime monthDate = currentMonth.minusMonths(i);
-            String monthName = monthDate.getMonth().getDisplayName(TextStyle.SHORT, Locale.ENGLISH);
-            double total = salesByMonth.getOrDefault(monthName, 0.0);
-            monthlySales.add(new MonthlySalesDTO(monthName, total));
+        return ResponseEntity.ok().eTag(etag).cacheControl(DASHBOARD_CACHE).body(monthlySales);
+    }
+
+    // 📈 Ventes par jour, semaine, mois ou année, pour toute la boutique, un fournisseur ou une catégorie
+    // (key absent : toutes les clés de la dimension)
+    @GetMapping("/analytics/sales")
+    public ResponseEntity<?> getSales(
+            @RequestParam(defaultValue = "month") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "ALL") String dimension,
+            @RequestParam(required = false) String key,
+            WebRequest webRequest
+    ) {
+        SalesRollupService.Granularity unit;
+        RollupDimension rollupDimension;
+        try {
+            unit = SalesRollupService.Granularity.valueOf(granularity.toUpperCase(Locale.ROOT));
+            rollupDimension = RollupDimension.valueOf(dimension.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Invalid granularity or dimension"));
+        }
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusYears(1).plusDays(1);
+        if (start.isAfter(end)) {
+            return ResponseEntity.badRequest().body(Map.of("message", "from must not be after to"));
         }
 
-        return ResponseEntity.ok(monthlySales);
+        String etag = salesEtag("sales-" + unit + "-" + rollupDimension + "-" + key + "-" + start + "-" + end);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(DASHBOARD_CACHE)
+                .body(salesRollupService.buckets(rollupDimension, key, start, end, unit));
+    }
+
+    // 🔁 Recalcul des agrégats de ventes (tout l'historique sans paramètres)
+    @PostMapping("/analytics/rollups/rebuild")
+    public ResponseEntity<?> rebuildSalesRollups(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        if ((from == null) != (to == null) || (from != null && from.isAfter(to))) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Give both from and to, from not after to"));
+        }
+        int rows = from == null ? salesRollupService.rebuildAll() : salesRollupService.rebuild(from, to);
+        return ResponseEntity.ok(Map.of("rows", rows));
+    }
+
+    // ETag des graphiques de ventes : version des agrégats + jour courant (fenêtres glissantes)
+    private String salesEtag(String name) {
+        return dataVersions.etag(name + "-" + LocalDate.now(), DataVersions.Scope.SALES);
+    }
+
+    // Corps de l'instantané + computedAt / stale ; l'ETag suit la version de l'instantané
+    private ResponseEntity<Map<String, Object>> snapshotResponse(
+            String name, Function<AnalyticsSnapshotService.Snapshot, Map<String, Object>> figures,
+            WebRequest webRequest) {
+        AnalyticsSnapshotService.Snapshot snapshot = analyticsSnapshotService.current();
+        boolean stale = analyticsSnapshotService.isStale();
+        String etag = "\"" + name + "-" + snapshot.version() + (stale ? "-stale" : "") + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        Map<String, Object> body = new HashMap<>(figures.apply(snapshot));
+        body.put("computedAt", snapshot.computedAt());
+        body.put("stale", stale);
+        return ResponseEntity.ok().eTag(etag).cacheControl(DASHBOARD_CACHE).body(body);
+    }
+
+    // "createdAt", "total,desc"... ; plus récentes d'abord par défaut ou si le champ n'est pas autorisé
+    private static Sort parseOrderSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return ORDERS_NEWEST_FIRST;
+        }
+        String[] parts = sort.split(",");
+        String property = parts[0].trim();
+        if (!ORDER_SORT_FIELDS.contains(property)) {
+            return ORDERS_NEWEST_FIRST;
+        }
+        Sort.Direction direction = parts.length > 1 && "desc".equalsIgnoreCase(parts[1].trim())
+                ? Sort.Direction.DESC
+                : Sort.Direction.ASC;
+        return "id".equals(property) ? Sort.by(direction, "id") : Sort.by(direction, property, "id");
     }
 }
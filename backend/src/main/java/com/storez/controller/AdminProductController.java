@@ -1,13 +1,20 @@
 package com.storez.controller;
 
+import com.storez.dto.AdminProductView;
+import com.storez.dto.FieldSet;
 import com.storez.model.OrderItem;
 import com.storez.model.Product;
-import com.storez.model.Supplier;
+import com.storez.pagination.CursorPage;
+import com.storez.pagination.KeysetPaging;
+import com.storez.pagination.KeysetSort;
 import com.storez.repository.OrderItemRepository;
 import com.storez.repository.ProductRepository;
 import com.storez.service.FileStorageService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -19,11 +26,9 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/admin/products")
@@ -35,57 +40,46 @@ public class AdminProductController {
     private final OrderItemRepository orderItemRepository;
     private final FileStorageService fileStorageService;
 
+    private static final KeysetSort<AdminProductView> NEWEST_FIRST =
+            KeysetSort.byId(Sort.Direction.DESC, AdminProductView::id);
+
     @GetMapping
     public ResponseEntity<Map<String, Object>> getAllProducts(
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "10") int size
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String fields
     ) {
         int safeSize = Math.max(size, 1);
         int requestedPage = Math.max(page, 1);
-
-        List<Product> allProducts = productRepository.findAll(Sort.by(Sort.Direction.DESC, "id"));
-        int totalItems = allProducts.size();
-        int calculatedTotalPages = totalItems == 0 ? 0 : (int) Math.ceil((double) totalItems / safeSize);
-        int effectiveTotalPages = Math.max(calculatedTotalPages, 1);
-        int effectivePage = Math.min(requestedPage, effectiveTotalPages);
-
-        int startIndex = (effectivePage - 1) * safeSize;
-        int endIndex = Math.min(startIndex + safeSize, totalItems);
-
-        List<Product> pageContent = totalItems == 0
-                ? Collections.emptyList()
-                : allProducts.subList(startIndex, endIndex);
-
-        List<Map<String, Object>> productDtos = pageContent.stream()
-                .map(product -> {
-                    Map<String, Object> dto = new HashMap<>();
-                    dto.put("id", product.getId());
-                    dto.put("name", product.getName());
-                    dto.put("description", product.getDescription());
-                    dto.put("price", product.getPrice());
-                    dto.put("image", product.getImage());
-                    dto.put("category", product.getCategory());
-                    dto.put("stock", product.getStock());
-                    dto.put("status", product.getStatus());
-
-                    Supplier supplier = product.getSupplier();
-                    if (supplier != null) {
-                        Map<String, Object> supplierInfo = new HashMap<>();
-                        supplierInfo.put("id", supplier.getId());
-                        supplierInfo.put("companyName", supplier.getCompanyName());
-                        supplierInfo.put("email", supplier.getEmail());
-                        dto.put("supplier", supplierInfo);
-                    }
-
-                    return dto;
-                })
-                .collect(Collectors.toList());
+        FieldSet fieldSet = FieldSet.parse(fields, AdminProductView.FIELDS).with("id");
 
         Map<String, Object> response = new HashMap<>();
-        response.put("products", productDtos);
-        response.put("currentPage", effectivePage);
-        response.put("totalPages", calculatedTotalPages == 0 ? 1 : calculatedTotalPages);
-        response.put("totalItems", totalItems);
+
+        // Cursor mode: constant cost per page whatever the depth
+        if (after != null) {
+            CursorPage<AdminProductView> result = KeysetPaging.fetch(
+                    (filter, order, limit) -> productRepository.findAdminViews(filter, order, limit, fieldSet),
+                    (Specification<Product>) null, NEWEST_FIRST, after, safeSize);
+            response.put("products", result.items());
+            response.put("nextCursor", result.nextCursor());
+            response.put("hasNext", result.hasNext());
+            return ResponseEntity.ok(response);
+        }
+
+        Page<AdminProductView> result = productRepository.findAdminViews(
+                null, PageRequest.of(requestedPage - 1, safeSize, NEWEST_FIRST.toSort()), fieldSet);
+
+        // Requested page past the end: fall back to the last page, as before
+        if (result.getContent().isEmpty() && result.getTotalPages() > 0 && requestedPage > result.getTotalPages()) {
+            result = productRepository.findAdminViews(
+                    null, PageRequest.of(result.getTotalPages() - 1, safeSize, NEWEST_FIRST.toSort()), fieldSet);
+        }
+
+        response.put("products", result.getContent());
+        response.put("currentPage", result.getNumber() + 1);
+        response.put("totalPages", Math.max(result.getTotalPages(), 1));
+        response.put("totalItems", result.getTotalElements());
 
         return ResponseEntity.ok(response);
     }
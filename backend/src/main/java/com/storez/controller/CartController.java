@@ -8,6 +8,7 @@ import com.storez.repository.CartItemRepository;
 import com.storez.repository.CartRepository;
 import com.storez.repository.ProductRepository;
 import com.storez.repository.UserRepository;
+import com.storez.service.ProductCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -27,6 +28,7 @@ public class CartController {
     private final CartItemRepository cartItemRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
+    private final ProductCache productCache;
 
     @GetMapping
     public ResponseEntity<Cart> getCart(@AuthenticationPrincipal UserDetails currentUser) {
@@ -51,8 +53,10 @@ public class CartController {
         User user = userRepository.findByEmail(currentUser.getUsername())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        Product product = productRepository.findById(productId)
+        // Existence check served by the cache; the reference only carries the FK, no SELECT
+        productCache.find(productId)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
+        Product product = productRepository.getReferenceById(productId);
 
         Cart cart = cartRepository.findByUserId(user.getId())
                 .orElseGet(() -> {
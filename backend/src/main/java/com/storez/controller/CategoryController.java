@@ -2,10 +2,11 @@ package com.storez.controller;
 
 import com.storez.entity.Category;
 import com.storez.repository.CategoryRepository;
+import com.storez.service.CatalogResponseCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import java.util.List;
+import org.springframework.web.context.request.ServletWebRequest;
 import java.util.stream.Collectors;
 
 @RestController
@@ -16,12 +17,13 @@ public class CategoryController {
 
     private final CategoryRepository categoryRepository;
 
+    private final CatalogResponseCache catalogResponseCache;
+
     @GetMapping
-    public ResponseEntity<List<String>> getAllCategories() {
-        List<String> categories = categoryRepository.findAll()
+    public ResponseEntity<byte[]> getAllCategories(ServletWebRequest request) {
+        return catalogResponseCache.respond(request, () -> categoryRepository.findAll()
                 .stream()
                 .map(Category::getName)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(categories);
+                .collect(Collectors.toList()));
     }
 }
@@ -1,16 +1,15 @@
 package com.storez.controller;
 
-import com.storez.model.*;
-import com.storez.repository.OrderRepository;
-import com.storez.repository.ProductRepository;
+import com.storez.model.Order;
+import com.storez.model.User;
 import com.storez.repository.UserRepository;
+import com.storez.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -21,9 +20,8 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class OrderController {
 
-    private final OrderRepository orderRepository;
-    private final ProductRepository productRepository;
     private final UserRepository userRepository;
+    private final OrderService orderService;
 
     @PostMapping
     public ResponseEntity<?> createOrder(
@@ -45,38 +43,24 @@ public class OrderController {
             return ResponseEntity.badRequest().body(Map.of("error", "No items in order"));
         }
 
-        // Create the order
-        Order order = Order.builder()
-                .user(user)
-                .createdAt(LocalDateTime.now())
-                .status(OrderStatus.PENDING)
-                .items(new ArrayList<>())
-                .build();
-
-        // Create order items
+        List<OrderService.Line> lines = new ArrayList<>();
         for (Map<String, Object> itemData : itemsData) {
             Long productId = Long.valueOf(itemData.get("productId").toString());
-            Integer quantity = Integer.valueOf(itemData.get("qty").toString());
-
-            Product product = productRepository.findById(productId)
-                    .orElseThrow(() -> new RuntimeException("Product not found: " + productId));
-
-            OrderItem orderItem = OrderItem.builder()
-                    .product(product)
-                    .quantity(quantity)
-                    .order(order)
-                    .build();
-
-            order.getItems().add(orderItem);
+            int quantity = Integer.parseInt(itemData.get("qty").toString());
+            if (quantity <= 0) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Invalid quantity for product " + productId));
+            }
+            lines.add(new OrderService.Line(productId, quantity));
         }
 
-        // Save order (cascade will save order items)
-        Order savedOrder = orderRepository.save(order);
+        // Stock is reserved with the order: 409 and nothing saved if a product runs short
+        Order savedOrder = orderService.placeOrder(user, lines);
 
         return ResponseEntity.ok(Map.of(
                 "message", "Order created successfully",
                 "orderId", savedOrder.getId(),
-                "status", savedOrder.getStatus().toString()
+                "status", savedOrder.getStatus().toString(),
+                "total", savedOrder.getTotal()
         ));
     }
 }
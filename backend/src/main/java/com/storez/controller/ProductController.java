@@ -1,19 +1,38 @@
 package com.storez.controller;
 
+import com.storez.dto.FieldSet;
+import com.storez.dto.ProductSnapshot;
+import com.storez.dto.ProductView;
+import com.storez.dto.RankedProduct;
+import com.storez.exception.ResourceNotFoundException;
 import com.storez.model.Product;
+import com.storez.model.ProductRanking;
 import com.storez.model.Supplier;
+import com.storez.pagination.CursorPage;
+import com.storez.pagination.KeysetPaging;
+import com.storez.pagination.KeysetSort;
 import com.storez.repository.ProductRepository;
+import com.storez.repository.ProductSpecifications;
 import com.storez.repository.SupplierRepository;
+import com.storez.service.CatalogResponseCache;
+import com.storez.service.ProductCache;
+import com.storez.service.ProductSalesTracker;
+import com.storez.service.ProductSearchService;
+import com.storez.service.ProductSuggestionIndex;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 @RestController
 @CrossOrigin(origins = "http://localhost:5173", allowCredentials = "true")
@@ -23,88 +42,154 @@ public class ProductController {
 
     private final ProductRepository productRepository;
     private final SupplierRepository supplierRepository;
+    private final ProductSearchService productSearchService;
+    private final ProductSuggestionIndex productSuggestionIndex;
+    private final ProductCache productCache;
+    private final CatalogResponseCache catalogResponseCache;
+    private final ProductSalesTracker productSalesTracker;
+
+    // Champs autorisés pour le tri (évite d'exposer n'importe quelle colonne)
+    private static final Map<String, KeysetSort<ProductView>> SORTABLE_FIELDS = Map.of(
+            "id", KeysetSort.byId(Sort.Direction.ASC, ProductView::id),
+            "name", new KeysetSort<>("name", Sort.Direction.ASC, String.class, ProductView::name, ProductView::id),
+            "price", new KeysetSort<>("price", Sort.Direction.ASC, Double.class, ProductView::price, ProductView::id),
+            "stock", new KeysetSort<>("stock", Sort.Direction.ASC, Integer.class, ProductView::stock, ProductView::id)
+    );
+    private static final int MAX_PAGE_SIZE = 100;
 
     // ✅ 1. Endpoint public - liste de produits visibles par tous avec pagination
+    // Filtres, tri et pagination sont exécutés par PostgreSQL (seule la page demandée est chargée)
+    // Passer "after" (vide pour la première page) active le mode curseur : nextCursor au lieu de totalPages
+    // La réponse JSON sérialisée est mise en cache jusqu'à la prochaine modification du catalogue
+    // "fields=name,price,image" ne sélectionne (et ne renvoie) que ces colonnes
     @GetMapping("/products")
-    public ResponseEntity<?> getAllProducts(
+    public ResponseEntity<byte[]> getAllProducts(
             @RequestParam(required = false) String query,
             @RequestParam(required = false) String category,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String after,
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "9") int size
+            @RequestParam(defaultValue = "9") int size,
+            @RequestParam(required = false) String fields,
+            ServletWebRequest request
     ) {
-        List<Product> products = productRepository.findAll();
+        return catalogResponseCache.respond(request,
+                () -> buildListing(query, category, minPrice, maxPrice, sort, after, page, size, fields));
+    }
+
+    private Map<String, Object> buildListing(String query, String category, Double minPrice, Double maxPrice,
+                                             String sort, String after, int page, int size, String fields) {
+        int safePage = Math.max(page, 1);
+        int safeSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        KeysetSort<ProductView> keysetSort = parseSort(sort);
+        // L'id et la clé de tri sont toujours lus : le curseur en a besoin
+        FieldSet fieldSet = FieldSet.parse(fields, ProductView.FIELDS).with("id", keysetSort.property());
+
+        Specification<Product> spec = Specification
+                .where(ProductSpecifications.hasStatus("APPROVED")) // afficher uniquement approuvés
+                .and(ProductSpecifications.inCategory(category))
+                .and(ProductSpecifications.nameContains(query))
+                .and(ProductSpecifications.priceAtLeast(minPrice))
+                .and(ProductSpecifications.priceAtMost(maxPrice));
+
+        Map<String, Object> response = new HashMap<>();
+
+        if (after != null) {
+            CursorPage<ProductView> result = KeysetPaging.fetch(
+                    (filter, order, limit) -> productRepository.findViews(filter, order, limit, fieldSet),
+                    spec, keysetSort, after, safeSize);
+            response.put("products", result.items());
+            response.put("nextCursor", result.nextCursor());
+            response.put("hasNext", result.hasNext());
+            response.put("itemsPerPage", safeSize);
+            return response;
+        }
+
+        // Recherche texte sans tri explicite : résultats classés par pertinence
+        boolean ranked = query != null && !query.isBlank() && (sort == null || sort.isBlank());
+        Page<ProductView> result = ranked
+                ? productSearchService.search(query, category, minPrice, maxPrice, safePage - 1, safeSize, fieldSet)
+                : productRepository.findViews(
+                        spec, PageRequest.of(safePage - 1, safeSize, keysetSort.toSort()), fieldSet);
+
+        response.put("products", result.getContent());
+        response.put("currentPage", safePage);
+        response.put("totalPages", result.getTotalPages());
+        response.put("totalItems", result.getTotalElements());
+        response.put("itemsPerPage", safeSize);
+
+        return response;
+    }
 
-        // Filtres optionnels
-        if (query != null && !query.isEmpty()) {
-            products = products.stream()
-                    .filter(p -> p.getName().toLowerCase().contains(query.toLowerCase()))
-                    .collect(Collectors.toList());
+    /**
+     * Parses "field" or "field,asc|desc", falling back to id order.
+     * The id is always used as a tie-breaker so pages never overlap.
+     */
+    private KeysetSort<ProductView> parseSort(String sort) {
+        KeysetSort<ProductView> fallback = SORTABLE_FIELDS.get("id");
+        if (sort == null || sort.isBlank()) {
+            return fallback;
         }
-        if (category != null && !category.isEmpty()) {
-            products = products.stream()
-                    .filter(p -> category.equalsIgnoreCase(p.getCategory()))
-                    .collect(Collectors.toList());
+        String[] parts = sort.split(",");
+        KeysetSort<ProductView> base = SORTABLE_FIELDS.get(parts[0].trim());
+        if (base == null) {
+            return fallback;
         }
+        Sort.Direction direction = parts.length > 1 && "desc".equalsIgnoreCase(parts[1].trim())
+                ? Sort.Direction.DESC
+                : Sort.Direction.ASC;
+        return new KeysetSort<>(base.property(), direction, base.keyType(), base.keyExtractor(), base.idExtractor());
+    }
 
-        // ✅ Convertir en format simplifié avec supplierName
-        List<Map<String, Object>> dtoList = products.stream()
-                .filter(p -> "APPROVED".equalsIgnoreCase(p.getStatus())) // afficher uniquement approuvés
-                .map(p -> {
-                    Map<String, Object> dto = new HashMap<>();
-                    dto.put("id", p.getId());
-                    dto.put("name", p.getName());
-                    dto.put("description", p.getDescription());
-                    dto.put("price", p.getPrice());
-                    dto.put("image", p.getImage());
-                    dto.put("category", p.getCategory());
-                    dto.put("stock", p.getStock());
-                    dto.put("status", p.getStatus());
-                    dto.put("supplierName",
-                            p.getSupplier() != null ? p.getSupplier().getCompanyName() : "Unknown supplier");
-                    return dto;
-                })
-                .collect(Collectors.toList());
-
-        // Pagination
-        int totalItems = dtoList.size();
-        int totalPages = (int) Math.ceil((double) totalItems / size);
-        int startIndex = (page - 1) * size;
-        int endIndex = Math.min(startIndex + size, totalItems);
-
-        List<Map<String, Object>> paginatedList = dtoList.subList(
-                Math.max(0, startIndex),
-                Math.max(0, endIndex)
-        );
+    // ✅ Suggestions de recherche (autocomplete) servies depuis l'index en mémoire
+    @GetMapping("/products/suggest")
+    public ResponseEntity<List<ProductSuggestionIndex.Suggestion>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "8") int limit
+    ) {
+        return ResponseEntity.ok(productSuggestionIndex.suggest(prefix, limit));
+    }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("products", paginatedList);
-        response.put("currentPage", page);
-        response.put("totalPages", totalPages);
-        response.put("totalItems", totalItems);
-        response.put("itemsPerPage", size);
+    // ✅ Meilleures ventes, servies depuis le classement en mémoire (aucune requête sur les commandes)
+    @GetMapping("/products/top")
+    public ResponseEntity<List<RankedProduct>> getTopProducts(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(rankedProducts(ProductRanking.BEST_SELLERS, limit));
+    }
+
+    // ✅ Tendances : ventes récentes (le poids d'une vente diminue de moitié à chaque demi-vie)
+    @GetMapping("/products/trending")
+    public ResponseEntity<List<RankedProduct>> getTrendingProducts(@RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(rankedProducts(ProductRanking.TRENDING, limit));
+    }
 
-        return ResponseEntity.ok(response);
+    // Produits du classement encore visibles (approuvés), détails lus dans le cache produit
+    private List<RankedProduct> rankedProducts(ProductRanking ranking, int limit) {
+        int safeLimit = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        List<ProductSalesTracker.Ranked> candidates = productSalesTracker.ranking(ranking);
+        List<RankedProduct> result = new ArrayList<>();
+        // Par blocs : seuls les produits nécessaires sont chargés
+        for (int from = 0; from < candidates.size() && result.size() < safeLimit; from += safeLimit) {
+            List<ProductSalesTracker.Ranked> batch = candidates.subList(from, Math.min(from + safeLimit, candidates.size()));
+            Map<Long, ProductSnapshot> products = productCache.findAll(
+                    batch.stream().map(ProductSalesTracker.Ranked::productId).toList());
+            for (ProductSalesTracker.Ranked ranked : batch) {
+                ProductSnapshot product = products.get(ranked.productId());
+                if (product != null && "APPROVED".equals(product.status()) && result.size() < safeLimit) {
+                    result.add(new RankedProduct(ProductView.of(product), ranked.score()));
+                }
+            }
+        }
+        return result;
     }
 
     // ✅ 2. Endpoint public - produit unique (détails)
     @GetMapping("/products/{id}")
-    public ResponseEntity<?> getProduct(@PathVariable Long id) {
-        Product p = productRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Product not found"));
-
-        Map<String, Object> dto = new HashMap<>();
-        dto.put("id", p.getId());
-        dto.put("name", p.getName());
-        dto.put("description", p.getDescription());
-        dto.put("price", p.getPrice());
-        dto.put("image", p.getImage());
-        dto.put("category", p.getCategory());
-        dto.put("stock", p.getStock());
-        dto.put("status", p.getStatus());
-        dto.put("supplierName",
-                p.getSupplier() != null ? p.getSupplier().getCompanyName() : "Unknown supplier");
-
-        return ResponseEntity.ok(dto);
+    public ResponseEntity<byte[]> getProduct(@PathVariable Long id, ServletWebRequest request) {
+        return catalogResponseCache.respond(request, () -> productCache.find(id)
+                .map(ProductView::of)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found")));
     }
 
     // ✅ 3. Endpoint supplier - ajout de produit
@@ -120,7 +205,7 @@ public class ProductController {
         Supplier supplier = supplierRepository.findByEmail(currentUser.getUsername())
                 .orElseThrow(() -> new RuntimeException("Supplier not found"));
 
-        List<Product> products = productRepository.findBySupplierId(supplier.getId());
+        List<Product> products = productRepository.findWithDetailsBySupplierId(supplier.getId());
         return ResponseEntity.ok(products);
     }
 }
@@ -1,25 +1,35 @@
 package com.storez.controller;
 
-import com.storez.model.Order;
-import com.storez.model.OrderItem;
+import com.storez.dto.OrderSummary;
+import com.storez.dto.SupplierEarning;
 import com.storez.model.Product;
+import com.storez.model.RollupDimension;
 import com.storez.model.Supplier;
-import com.storez.repository.OrderRepository;
+import com.storez.repository.OrderItemRepository;
 import com.storez.repository.ProductRepository;
+import com.storez.repository.SupplierOrderRepository;
 import com.storez.repository.SupplierRepository;
+import com.storez.service.DataVersions;
 import com.storez.service.FileStorageService;
+import com.storez.service.SalesRollupService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.util.ArrayList;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/supplier")
@@ -29,8 +39,15 @@ public class SupplierController {
 
     private final ProductRepository productRepository;
     private final SupplierRepository supplierRepository;
-    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final SupplierOrderRepository supplierOrderRepository;
     private final FileStorageService fileStorageService;
+    private final DataVersions dataVersions;
+    private final SalesRollupService salesRollupService;
+
+    // Browsers keep dashboard responses but revalidate them on every use
+    private static final CacheControl DASHBOARD_CACHE = CacheControl.noCache().cachePrivate();
+    private static final int MAX_PAGE_SIZE = 100;
 
     @PostMapping("/products")
     public ResponseEntity<?> addProduct(
@@ -70,7 +87,7 @@ public class SupplierController {
     public List<Product> myProducts(@AuthenticationPrincipal UserDetails currentUser) {
         Supplier supplier = supplierRepository.findByEmail(currentUser.getUsername())
                 .orElseThrow(() -> new RuntimeException("Supplier not found"));
-        return productRepository.findBySupplierId(supplier.getId());
+        return productRepository.findWithDetailsBySupplierId(supplier.getId());
     }
 
     @GetMapping("/products/{id}")
@@ -181,100 +198,49 @@ public class SupplierController {
     }
 
     @GetMapping("/earnings")
-    public ResponseEntity<Map<String, Object>> getEarnings(@AuthenticationPrincipal UserDetails currentUser) {
-        Supplier supplier = supplierRepository.findByEmail(currentUser.getUsername())
-                .orElseThrow(() -> new RuntimeException("Supplier not found"));
-
-        // Get all orders
-        List<Order> allOrders = orderRepository.findAll();
-
-        // Calculate earnings from orders containing supplier's products
-        List<Map<String, Object>> earningDetails = new ArrayList<>();
-        double totalEarnings = 0.0;
-
-        for (Order order : allOrders) {
-            if (order.getItems() != null) {
-                for (OrderItem item : order.getItems()) {
-                    if (item.getProduct() != null &&
-                        item.getProduct().getSupplier() != null &&
-                        item.getProduct().getSupplier().getId().equals(supplier.getId())) {
-
-                        double amount = item.getProduct().getPrice() * item.getQuantity();
-                        totalEarnings += amount;
-
-                        Map<String, Object> detail = new HashMap<>();
-                        detail.put("id", item.getId());
-                        detail.put("orderId", order.getId());
-                        detail.put("productName", item.getProduct().getName());
-                        detail.put("amount", amount);
-                        detail.put("date", order.getCreatedAt());
-                        earningDetails.add(detail);
-                    }
-                }
-            }
+    public ResponseEntity<Map<String, Object>> getEarnings(
+            @AuthenticationPrincipal UserDetails currentUser,
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest webRequest) {
+        Long supplierId = currentSupplierId(currentUser);
+        String etag = dashboardEtag("earnings", supplierId);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
         }
 
+        // Only this supplier's lines are read, newest first, one page at a time ("page" is 1-based)
+        Pageable pageable = PageRequest.of(Math.max(page, 1) - 1, Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+        Page<SupplierEarning> details = orderItemRepository.findEarningsBySupplierId(supplierId, pageable);
+
         Map<String, Object> result = new HashMap<>();
-        result.put("total", totalEarnings);
-        result.put("details", earningDetails);
+        result.put("total", supplierOrderRepository.sumSubtotalBySupplierId(supplierId));
+        result.put("details", details.getContent());
+        result.put("currentPage", details.getNumber() + 1);
+        result.put("totalPages", details.getTotalPages());
+        result.put("totalItems", details.getTotalElements());
 
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok().eTag(etag).cacheControl(DASHBOARD_CACHE).body(result);
     }
 
     @GetMapping("/stats")
-    public ResponseEntity<Map<String, Object>> getStats(@AuthenticationPrincipal UserDetails currentUser) {
-        Supplier supplier = supplierRepository.findByEmail(currentUser.getUsername())
-                .orElseThrow(() -> new RuntimeException("Supplier not found"));
+    public ResponseEntity<Map<String, Object>> getStats(
+            @AuthenticationPrincipal UserDetails currentUser,
+            WebRequest webRequest) {
+        Long supplierId = currentSupplierId(currentUser);
+        String etag = dashboardEtag("stats", supplierId);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
 
-        List<Product> myProducts = productRepository.findBySupplierId(supplier.getId());
-        long totalProducts = myProducts.size();
-        long pendingProducts = myProducts.stream()
-                .filter(p -> "PENDING".equals(p.getStatus()))
-                .count();
-
-        // Get all orders
-        List<Order> allOrders = orderRepository.findAll();
-
-        // Filter orders that contain products from this supplier
-        List<Order> supplierOrders = allOrders.stream()
-                .filter(order -> order.getItems() != null && order.getItems().stream()
-                        .anyMatch(item -> item.getProduct() != null &&
-                                item.getProduct().getSupplier() != null &&
-                                item.getProduct().getSupplier().getId().equals(supplier.getId())))
-                .collect(Collectors.toList());
-
-        long totalOrders = supplierOrders.size();
-
-        // Calculate total earnings
-        double totalEarnings = supplierOrders.stream()
-                .flatMap(order -> order.getItems().stream())
-                .filter(item -> item.getProduct() != null &&
-                        item.getProduct().getSupplier() != null &&
-                        item.getProduct().getSupplier().getId().equals(supplier.getId()))
-                .mapToDouble(item -> item.getProduct().getPrice() * item.getQuantity())
-                .sum();
-
-        // Get recent orders (last 5)
-        List<Map<String, Object>> recentOrders = supplierOrders.stream()
-                .limit(5)
-                .map(order -> {
-                    Map<String, Object> orderMap = new HashMap<>();
-                    orderMap.put("id", order.getId());
-                    orderMap.put("date", order.getCreatedAt());
-                    orderMap.put("status", order.getStatus());
-
-                    // Calculate total for this order (only for this supplier's products)
-                    double orderTotal = order.getItems().stream()
-                            .filter(item -> item.getProduct() != null &&
-                                    item.getProduct().getSupplier() != null &&
-                                    item.getProduct().getSupplier().getId().equals(supplier.getId()))
-                            .mapToDouble(item -> item.getProduct().getPrice() * item.getQuantity())
-                            .sum();
-                    orderMap.put("total", orderTotal);
-
-                    return orderMap;
-                })
-                .collect(Collectors.toList());
+        // Counts and sums are computed by the database over this supplier's rows only
+        long totalProducts = productRepository.countBySupplierId(supplierId);
+        long pendingProducts = productRepository.countBySupplierIdAndStatus(supplierId, "PENDING");
+        long totalOrders = supplierOrderRepository.countBySupplierId(supplierId);
+        double totalEarnings = supplierOrderRepository.sumSubtotalBySupplierId(supplierId);
+        // Last 5 orders, with the subtotal of this supplier's part only
+        List<OrderSummary> recentOrders = supplierOrderRepository.findRecentSummaries(
+                supplierId, PageRequest.of(0, 5));
 
         Map<String, Object> stats = new HashMap<>();
         stats.put("totalProducts", totalProducts);
@@ -283,6 +249,48 @@ public class SupplierController {
         stats.put("pendingProducts", pendingProducts);
         stats.put("recentOrders", recentOrders);
 
-        return ResponseEntity.ok(stats);
+        return ResponseEntity.ok().eTag(etag).cacheControl(DASHBOARD_CACHE).body(stats);
+    }
+
+    // Sales chart of this supplier's own parts, read from the daily rollups (one row per day at most)
+    @GetMapping("/analytics/sales")
+    public ResponseEntity<?> getSales(
+            @AuthenticationPrincipal UserDetails currentUser,
+            @RequestParam(defaultValue = "month") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            WebRequest webRequest) {
+        SalesRollupService.Granularity unit;
+        try {
+            unit = SalesRollupService.Granularity.valueOf(granularity.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Invalid granularity"));
+        }
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusYears(1).plusDays(1);
+        if (start.isAfter(end)) {
+            return ResponseEntity.badRequest().body(Map.of("message", "from must not be after to"));
+        }
+
+        Long supplierId = currentSupplierId(currentUser);
+        String etag = dataVersions.etag("sales-" + supplierId + "-" + unit + "-" + start + "-" + end + "-" + LocalDate.now(),
+                DataVersions.Scope.SALES);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        return ResponseEntity.ok().eTag(etag).cacheControl(DASHBOARD_CACHE).body(salesRollupService.buckets(
+                RollupDimension.SUPPLIER, String.valueOf(supplierId), start, end, unit));
+    }
+
+    // Built from version counters and the supplier id, so a 304 costs only the id lookup. The id is part of
+    // the tag so two suppliers sharing a browser never revalidate each other's figures.
+    private String dashboardEtag(String name, Long supplierId) {
+        return dataVersions.etag(name + "-" + supplierId, DataVersions.Scope.CATALOG, DataVersions.Scope.ORDERS);
+    }
+
+    private Long currentSupplierId(UserDetails currentUser) {
+        return supplierRepository.findIdByEmail(currentUser.getUsername())
+                .orElseThrow(() -> new RuntimeException("Supplier not found"));
     }
 }
@@ -1,17 +1,30 @@
 package com.storez.controller;
 
-import com.storez.model.Order;
-import com.storez.model.OrderItem;
-import com.storez.repository.OrderRepository;
+import com.storez.dto.FieldSet;
+import com.storez.dto.OrderView;
+import com.storez.model.OrderStatus;
+import com.storez.model.SupplierOrder;
+import com.storez.repository.OrderItemRepository;
+import com.storez.repository.OrderSpecifications;
+import com.storez.repository.SupplierOrderRepository;
 import com.storez.repository.SupplierRepository;
+import com.storez.service.OrderFeedHub;
+import com.storez.service.OrderService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/supplier/orders")
@@ -19,81 +32,76 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class SupplierOrderController {
 
-    private final OrderRepository orderRepository;
+    private final SupplierOrderRepository supplierOrderRepository;
+    private final OrderItemRepository orderItemRepository;
     private final SupplierRepository supplierRepository;
+    private final OrderService orderService;
+    private final OrderFeedHub orderFeedHub;
 
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // "fields=id,status,total" : the lines are only read when items are requested
+    // Always one page ("page" is 1-based, at most MAX_PAGE_SIZE orders), with totalPages/totalItems
     @GetMapping
-    public ResponseEntity<?> getSupplierOrders(@AuthenticationPrincipal UserDetails currentUser) {
+    public ResponseEntity<?> getSupplierOrders(
+            @AuthenticationPrincipal UserDetails currentUser,
+            @RequestParam(required = false) String fields,
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "20") int size) {
         if (currentUser == null)
             return ResponseEntity.status(401).body("Unauthorized");
 
         var supplier = supplierRepository.findByEmail(currentUser.getUsername())
                 .orElseThrow(() -> new RuntimeException("Supplier not found"));
+        FieldSet fieldSet = FieldSet.parse(fields, OrderView.FIELDS);
+
+        // The supplier's part of each order, newest first: its own status, items and subtotal (as total)
+        Specification<SupplierOrder> spec = OrderSpecifications.fulfilledBy(supplier.getId());
+
+        Page<OrderView> result = supplierOrderRepository.findViews(spec,
+                PageRequest.of(Math.max(page, 1) - 1, Math.min(Math.max(size, 1), MAX_PAGE_SIZE), NEWEST_FIRST),
+                fieldSet);
+        List<OrderView> orders = result.getContent();
+        if (OrderView.needsLines(fieldSet) && !orders.isEmpty()) {
+            // Lines of this page's orders only
+            List<Long> orderIds = orders.stream().map(OrderView::id).toList();
+            orders = OrderView.assemble(orders,
+                    orderItemRepository.findLinesBySupplierIdAndOrderIdIn(supplier.getId(), orderIds), fieldSet);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("orders", orders);
+        response.put("currentPage", result.getNumber() + 1);
+        response.put("totalPages", result.getTotalPages());
+        response.put("totalItems", result.getTotalElements());
+        return ResponseEntity.ok(response);
+    }
 
-        // Get all orders and filter those containing supplier's products
-        List<Order> allOrders = orderRepository.findAll();
-
-        List<Map<String, Object>> supplierOrders = allOrders.stream()
-                .filter(order -> order.getItems() != null && order.getItems().stream()
-                        .anyMatch(item -> item.getProduct() != null &&
-                                item.getProduct().getSupplier() != null &&
-                                item.getProduct().getSupplier().getId().equals(supplier.getId())))
-                .map(order -> {
-                    Map<String, Object> orderDto = new HashMap<>();
-                    orderDto.put("id", order.getId());
-                    orderDto.put("createdAt", order.getCreatedAt());
-                    orderDto.put("status", order.getStatus().name());
-
-                    // Filter items to only include this supplier's products
-                    List<Map<String, Object>> supplierItems = order.getItems().stream()
-                            .filter(item -> item.getProduct() != null &&
-                                    item.getProduct().getSupplier() != null &&
-                                    item.getProduct().getSupplier().getId().equals(supplier.getId()))
-                            .map(item -> {
-                                Map<String, Object> itemDto = new HashMap<>();
-                                itemDto.put("id", item.getId());
-                                itemDto.put("quantity", item.getQuantity());
-
-                                Map<String, Object> productInfo = new HashMap<>();
-                                productInfo.put("id", item.getProduct().getId());
-                                productInfo.put("name", item.getProduct().getName());
-                                productInfo.put("price", item.getProduct().getPrice());
-                                productInfo.put("image", item.getProduct().getImage());
-                                itemDto.put("product", productInfo);
-
-                                return itemDto;
-                            })
-                            .collect(Collectors.toList());
-
-                    orderDto.put("items", supplierItems);
-
-                    // Calculate total for this supplier's items only
-                    double total = supplierItems.stream()
-                            .mapToDouble(item -> {
-                                @SuppressWarnings("unchecked")
-                                Map<String, Object> product = (Map<String, Object>) item.get("product");
-                                double price = ((Number) product.get("price")).doubleValue();
-                                int quantity = ((Number) item.get("quantity")).intValue();
-                                return price * quantity;
-                            })
-                            .sum();
-                    orderDto.put("total", total);
-
-                    // User info
-                    if (order.getUser() != null) {
-                        Map<String, Object> userInfo = new HashMap<>();
-                        userInfo.put("id", order.getUser().getId());
-                        userInfo.put("name", order.getUser().getName());
-                        userInfo.put("email", order.getUser().getEmail());
-                        orderDto.put("user", userInfo);
-                    }
+    // Live feed of the supplier's new orders and status changes (Server-Sent Events)
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrders(@AuthenticationPrincipal UserDetails currentUser) {
+        var supplier = supplierRepository.findByEmail(currentUser.getUsername())
+                .orElseThrow(() -> new RuntimeException("Supplier not found"));
+        return orderFeedHub.subscribeSupplier(supplier.getId());
+    }
 
-                    return orderDto;
-                })
-                .sorted((o1, o2) -> ((java.time.LocalDateTime)o2.get("createdAt"))
-                        .compareTo((java.time.LocalDateTime)o1.get("createdAt")))
-                .collect(Collectors.toList());
+    // Advances the supplier's part of an order; other suppliers' parts and the order itself are untouched
+    @PutMapping("/{orderId}/status")
+    public ResponseEntity<?> updateStatus(
+            @AuthenticationPrincipal UserDetails currentUser,
+            @PathVariable Long orderId,
+            @RequestParam String status) {
+        var supplier = supplierRepository.findByEmail(currentUser.getUsername())
+                .orElseThrow(() -> new RuntimeException("Supplier not found"));
 
-        return ResponseEntity.ok(supplierOrders);
+        OrderStatus newStatus;
+        try {
+            newStatus = OrderStatus.valueOf(status);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Invalid status"));
+        }
+        orderService.updateSupplierStatus(orderId, supplier.getId(), newStatus);
+        return ResponseEntity.ok(Map.of("message", "Order status updated"));
     }
 }
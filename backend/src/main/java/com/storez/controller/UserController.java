@@ -1,21 +1,33 @@
 package com.storez.controller;
 
+import com.storez.dto.FieldSet;
+import com.storez.dto.OrderSummary;
+import com.storez.dto.OrderView;
 import com.storez.model.Order;
 import com.storez.model.OrderStatus;
 import com.storez.model.User;
+import com.storez.pagination.CursorPage;
+import com.storez.pagination.KeysetPaging;
+import com.storez.pagination.KeysetSort;
+import com.storez.repository.OrderItemRepository;
 import com.storez.repository.OrderRepository;
+import com.storez.repository.OrderSpecifications;
 import com.storez.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/user")
@@ -25,54 +37,33 @@ public class UserController {
 
     private final UserRepository userRepository;
     private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
 
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getStats(@AuthenticationPrincipal UserDetails currentUser) {
         User user = userRepository.findByEmail(currentUser.getUsername())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        List<Order> userOrders = orderRepository.findAll().stream()
-                .filter(order -> order.getUser() != null && order.getUser().getId().equals(user.getId()))
-                .collect(Collectors.toList());
+        // Order counts per status, counted by the database
+        Map<OrderStatus, Long> countsByStatus = new EnumMap<>(OrderStatus.class);
+        orderRepository.countByStatusForUser(user.getId())
+                .forEach(row -> countsByStatus.put(row.status(), row.count()));
 
-        long totalOrders = userOrders.size();
+        long totalOrders = countsByStatus.values().stream().mapToLong(Long::longValue).sum();
 
         // Count shipped/delivered orders (SHIPPED + DELIVERED)
-        long shippedOrders = userOrders.stream()
-                .filter(order -> order.getStatus() == OrderStatus.SHIPPED || order.getStatus() == OrderStatus.DELIVERED)
-                .count();
+        long shippedOrders = countsByStatus.getOrDefault(OrderStatus.SHIPPED, 0L)
+                + countsByStatus.getOrDefault(OrderStatus.DELIVERED, 0L);
 
         // Count pending orders (PENDING, not yet shipped)
-        long pendingOrders = userOrders.stream()
-                .filter(order -> order.getStatus() == OrderStatus.PENDING)
-                .count();
+        long pendingOrders = countsByStatus.getOrDefault(OrderStatus.PENDING, 0L);
 
         // Calculate spending in last 30 days
         LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
-        double spentLast30Days = userOrders.stream()
-                .filter(order -> order.getCreatedAt().isAfter(thirtyDaysAgo))
-                .flatMap(order -> order.getItems().stream())
-                .mapToDouble(item -> item.getProduct().getPrice() * item.getQuantity())
-                .sum();
-
-        // Get recent orders
-        List<Map<String, Object>> recentOrders = userOrders.stream()
-                .sorted((o1, o2) -> o2.getCreatedAt().compareTo(o1.getCreatedAt()))
-                .limit(5)
-                .map(order -> {
-                    Map<String, Object> orderMap = new HashMap<>();
-                    orderMap.put("id", order.getId());
-                    orderMap.put("date", order.getCreatedAt());
-                    orderMap.put("status", order.getStatus());
-
-                    double orderTotal = order.getItems().stream()
-                            .mapToDouble(item -> item.getProduct().getPrice() * item.getQuantity())
-                            .sum();
-                    orderMap.put("total", orderTotal);
-
-                    return orderMap;
-                })
-                .collect(Collectors.toList());
+        double spentLast30Days = orderRepository.sumTotalByUserIdSince(user.getId(), thirtyDaysAgo);
+
+        // Get recent orders (totals summed by the database)
+        List<OrderSummary> recentOrders = orderRepository.findRecentSummaries(user.getId(), PageRequest.of(0, 5));
 
         Map<String, Object> stats = new HashMap<>();
         stats.put("totalOrders", totalOrders);
@@ -84,16 +75,58 @@ public class UserController {
         return ResponseEntity.ok(stats);
     }
 
+    private static final KeysetSort<OrderView> NEWEST_FIRST = new KeysetSort<>(
+            "createdAt", Sort.Direction.DESC, LocalDateTime.class, OrderView::createdAt, OrderView::id);
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // History served by idx_orders_user_created: projected headers, then the lines of those orders in one query.
+    // Always one page (at most MAX_PAGE_SIZE orders): "after" (empty for the first page) returns a cursor page,
+    // otherwise "page" (from 1) a numbered page
     @GetMapping("/orders")
-    public ResponseEntity<List<Order>> getMyOrders(@AuthenticationPrincipal UserDetails currentUser) {
+    public ResponseEntity<?> getMyOrders(
+            @AuthenticationPrincipal UserDetails currentUser,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String fields) {
         User user = userRepository.findByEmail(currentUser.getUsername())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        List<Order> userOrders = orderRepository.findAll().stream()
-                .filter(order -> order.getUser() != null && order.getUser().getId().equals(user.getId()))
-                .sorted((o1, o2) -> o2.getCreatedAt().compareTo(o1.getCreatedAt()))
-                .collect(Collectors.toList());
+        Specification<Order> spec = OrderSpecifications.placedBy(user.getId());
+        int safeSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+
+        if (after != null) {
+            // The id and date are always read: the cursor needs them
+            FieldSet fieldSet = FieldSet.parse(fields, OrderView.FIELDS).with("id", "createdAt");
+            CursorPage<OrderView> result = KeysetPaging.fetch(
+                    (filter, order, limit) -> orderRepository.findViews(filter, order, limit, fieldSet),
+                    spec, NEWEST_FIRST, after, safeSize);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("orders", withLines(result.items(), fieldSet));
+            response.put("nextCursor", result.nextCursor());
+            response.put("hasNext", result.hasNext());
+            return ResponseEntity.ok(response);
+        }
+
+        FieldSet fieldSet = FieldSet.parse(fields, OrderView.FIELDS);
+        Page<OrderView> result = orderRepository.findViews(spec,
+                PageRequest.of(Math.max(page, 1) - 1, safeSize, NEWEST_FIRST.toSort()), fieldSet);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("orders", withLines(result.getContent(), fieldSet));
+        response.put("currentPage", result.getNumber() + 1);
+        response.put("totalPages", result.getTotalPages());
+        response.put("totalItems", result.getTotalElements());
+        return ResponseEntity.ok(response);
+    }
 
-        return ResponseEntity.ok(userOrders);
+    // Lines (and products) of this page only, in one query
+    private List<OrderView> withLines(List<OrderView> orders, FieldSet fieldSet) {
+        if (!OrderView.needsLines(fieldSet) || orders.isEmpty()) {
+            return orders;
+        }
+        List<Long> orderIds = orders.stream().map(OrderView::id).toList();
+        return OrderView.assemble(orders, orderItemRepository.findLinesByOrderIdIn(orderIds), fieldSet);
     }
 }
@@ -0,0 +1,37 @@
+package com.storez.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Product row of the admin moderation list, with the owning supplier's contact.
+ * Properties left out of a sparse {@link FieldSet} are null and not serialized.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AdminProductView(
+        Long id,
+        String name,
+        String description,
+        Double price,
+        String image,
+        String category,
+        Integer stock,
+        String status,
+        SupplierRef supplier
+) {
+
+    public static final List<String> FIELDS = List.of(
+            "id", "name", "description", "price", "image", "category", "stock", "status", "supplier");
+
+    public record SupplierRef(Long id, String companyName, String email) {
+    }
+
+    /** Flat form used by the constructor projection (left join on supplier). */
+    public AdminProductView(Long id, String name, String description, Double price, String image,
+                            String category, Integer stock, String status,
+                            Long supplierId, String supplierCompanyName, String supplierEmail) {
+        this(id, name, description, price, image, category, stock, status,
+                supplierId != null ? new SupplierRef(supplierId, supplierCompanyName, supplierEmail) : null);
+    }
+}
@@ -0,0 +1,69 @@
+package com.storez.dto;
+
+import com.storez.exception.InvalidFieldsException;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Fields a client asked for with a "fields=name,price,image" parameter (sparse fieldset).
+ * Repositories select a NULL instead of the columns that are not requested, and the views omit null
+ * properties, so both the SQL projection and the JSON follow the request. No parameter means every field.
+ */
+public final class FieldSet {
+
+    private static final FieldSet ALL = new FieldSet(null);
+
+    // null means every field
+    private final Set<String> names;
+
+    private FieldSet(Set<String> names) {
+        this.names = names;
+    }
+
+    public static FieldSet all() {
+        return ALL;
+    }
+
+    /**
+     * Parses a comma separated list of field names, rejecting names that are not in allowed.
+     * A missing or blank parameter selects every field.
+     */
+    public static FieldSet parse(String fields, Collection<String> allowed) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<String> names = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        for (String name : names) {
+            if (!allowed.contains(name)) {
+                throw new InvalidFieldsException("Unknown field '" + name + "', expected one of " + allowed);
+            }
+        }
+        return new FieldSet(Collections.unmodifiableSet(names));
+    }
+
+    /** Adds fields the server needs whatever the client asked for (ids, cursor sort keys). */
+    public FieldSet with(String... required) {
+        if (names == null) {
+            return this;
+        }
+        Set<String> extended = new LinkedHashSet<>(names);
+        extended.addAll(Arrays.asList(required));
+        return new FieldSet(Collections.unmodifiableSet(extended));
+    }
+
+    public boolean includes(String name) {
+        return names == null || names.contains(name);
+    }
+
+    public boolean includesAny(String... candidates) {
+        return Arrays.stream(candidates).anyMatch(this::includes);
+    }
+}
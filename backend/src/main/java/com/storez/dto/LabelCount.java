@@ -0,0 +1,5 @@
+package com.storez.dto;
+
+/** Number of rows per label (category, supplier name), as returned by the GROUP BY top-N queries. */
+public record LabelCount(String label, long count) {
+}
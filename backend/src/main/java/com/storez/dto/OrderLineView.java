@@ -0,0 +1,37 @@
+package com.storez.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * One order item with the few product columns order screens display.
+ * unitPrice and lineTotal are the prices stored on the item at checkout, not the product's current price.
+ * The product is null when it was deleted after the order was placed.
+ */
+public record OrderLineView(
+        @JsonIgnore Long orderId,
+        Long id,
+        int quantity,
+        double unitPrice,
+        double lineTotal,
+        @JsonInclude(JsonInclude.Include.NON_NULL) ProductRef product
+) {
+
+    /** Identifies the product of the line; prices are on the line itself. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record ProductRef(Long id, String name, String image) {
+    }
+
+    /** Flat form used by constructor projections (left join on product). */
+    public OrderLineView(Long orderId, Long id, int quantity, Double unitPrice, Double lineTotal,
+                         Long productId, String productName, String productImage) {
+        this(orderId, id, quantity, unitPrice != null ? unitPrice : 0, lineTotal != null ? lineTotal : 0,
+                productId != null ? new ProductRef(productId, productName, productImage) : null);
+    }
+
+    /** Same as above for screens that don't show the product image. */
+    public OrderLineView(Long orderId, Long id, int quantity, Double unitPrice, Double lineTotal,
+                         Long productId, String productName) {
+        this(orderId, id, quantity, unitPrice, lineTotal, productId, productName, null);
+    }
+}
@@ -0,0 +1,11 @@
+package com.storez.dto;
+
+import com.storez.model.OrderStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * One line of a "recent orders" widget: the order and its total, computed by the database.
+ */
+public record OrderSummary(Long id, LocalDateTime date, OrderStatus status, double total) {
+}
@@ -0,0 +1,66 @@
+package com.storez.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.storez.model.OrderStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Order as shown on the admin and supplier order screens: header, customer, lines and total.
+ * Headers and lines are projected by two queries and stitched together with {@link #assemble}.
+ * Properties left out of a sparse {@link FieldSet} are null and not serialized.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record OrderView(
+        Long id,
+        LocalDateTime createdAt,
+        OrderStatus status,
+        UserRef user,
+        Double total,
+        List<OrderLineView> items
+) {
+
+    public static final List<String> FIELDS = List.of("id", "createdAt", "status", "user", "total", "items");
+
+    public record UserRef(Long id, String name, String email) {
+    }
+
+    /** Header-only form used by the constructor projection (left join on user). */
+    public OrderView(Long id, LocalDateTime createdAt, OrderStatus status,
+                     Long userId, String userName, String userEmail) {
+        this(id, createdAt, status, userId, userName, userEmail, null);
+    }
+
+    /** Same as above with the stored total (the order's, or a supplier order's subtotal). */
+    public OrderView(Long id, LocalDateTime createdAt, OrderStatus status,
+                     Long userId, String userName, String userEmail, Double total) {
+        this(id, createdAt, status, userId != null ? new UserRef(userId, userName, userEmail) : null,
+                total, null);
+    }
+
+    /** Whether the lines have to be loaded to render the requested fields (the total is stored on the header). */
+    public static boolean needsLines(FieldSet fields) {
+        return fields.includes("items");
+    }
+
+    /** Attaches lines to their headers, keeping the headers' order. */
+    public static List<OrderView> assemble(List<OrderView> headers, List<OrderLineView> lines) {
+        return assemble(headers, lines, FieldSet.all());
+    }
+
+    /** Same as above, only filling the items if they were requested. */
+    public static List<OrderView> assemble(List<OrderView> headers, List<OrderLineView> lines, FieldSet fields) {
+        Map<Long, List<OrderLineView>> linesByOrder = lines.stream()
+                .collect(Collectors.groupingBy(OrderLineView::orderId));
+        return headers.stream()
+                .map(header -> {
+                    List<OrderLineView> own = linesByOrder.getOrDefault(header.id(), List.of());
+                    return new OrderView(header.id(), header.createdAt(), header.status(), header.user(),
+                            header.total(), fields.includes("items") ? own : null);
+                })
+                .collect(Collectors.toList());
+    }
+}
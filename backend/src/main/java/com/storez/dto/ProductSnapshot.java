@@ -0,0 +1,19 @@
+package com.storez.dto;
+
+/**
+ * Immutable copy of a product and its supplier name, safe to share across requests and threads
+ * (unlike a managed entity with a lazy supplier proxy).
+ */
+public record ProductSnapshot(
+        Long id,
+        String name,
+        String description,
+        double price,
+        String image,
+        String category,
+        int stock,
+        String status,
+        Long supplierId,
+        String supplierName
+) {
+}
@@ -0,0 +1,34 @@
+package com.storez.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Public representation of a product, as returned by the catalog listing and the product page.
+ * Filled directly from a JPQL/Criteria constructor projection, so no entity is hydrated.
+ * Properties left out of a sparse {@link FieldSet} are null and not serialized.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ProductView(
+        Long id,
+        String name,
+        String description,
+        Double price,
+        String image,
+        String category,
+        Integer stock,
+        String status,
+        String supplierName
+) {
+
+    public static final String UNKNOWN_SUPPLIER = "Unknown supplier";
+
+    public static final List<String> FIELDS = List.of(
+            "id", "name", "description", "price", "image", "category", "stock", "status", "supplierName");
+
+    public static ProductView of(ProductSnapshot p) {
+        return new ProductView(p.id(), p.name(), p.description(), p.price(), p.image(), p.category(),
+                p.stock(), p.status(), p.supplierName() != null ? p.supplierName() : UNKNOWN_SUPPLIER);
+    }
+}
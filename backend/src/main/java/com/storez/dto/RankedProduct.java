@@ -0,0 +1,8 @@
+package com.storez.dto;
+
+/**
+ * Product of a storefront ranking (best sellers, trending) with its score: estimated units sold, or units
+ * weighted by recency for trending.
+ */
+public record RankedProduct(ProductView product, double score) {
+}
@@ -0,0 +1,5 @@
+package com.storez.dto;
+
+/** Order count and revenue, overall and since a date, read by one aggregate query over the stored totals. */
+public record RevenueSummary(long orders, double revenue, double revenueSince) {
+}
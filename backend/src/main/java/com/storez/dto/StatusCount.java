@@ -0,0 +1,7 @@
+package com.storez.dto;
+
+import com.storez.model.OrderStatus;
+
+/** Number of orders in one status, as returned by the GROUP BY status queries. */
+public record StatusCount(OrderStatus status, long count) {
+}
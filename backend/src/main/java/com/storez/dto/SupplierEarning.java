@@ -0,0 +1,9 @@
+package com.storez.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One sold line on the supplier earnings screen, with the line total stored at checkout.
+ */
+public record SupplierEarning(Long id, Long orderId, String productName, double amount, LocalDateTime date) {
+}
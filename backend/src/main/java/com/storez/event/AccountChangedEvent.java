@@ -0,0 +1,11 @@
+package com.storez.event;
+
+/**
+ * Published whenever a user or supplier account is inserted, updated or deleted through JPA.
+ */
+public record AccountChangedEvent(Type type, Long accountId) {
+
+    public enum Type {
+        USER, SUPPLIER
+    }
+}
@@ -0,0 +1,31 @@
+package com.storez.event;
+
+import com.storez.model.Supplier;
+import com.storez.model.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA listener turning every user and supplier write into an {@link AccountChangedEvent}.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountEntityListener {
+
+    private final ApplicationEventPublisher publisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void afterChange(Object entity) {
+        if (entity instanceof User user) {
+            publisher.publishEvent(new AccountChangedEvent(AccountChangedEvent.Type.USER, user.getId()));
+        } else if (entity instanceof Supplier supplier) {
+            publisher.publishEvent(new AccountChangedEvent(AccountChangedEvent.Type.SUPPLIER, supplier.getId()));
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.storez.event;
+
+/**
+ * Published whenever a category row is inserted, updated or deleted through JPA.
+ */
+public record CategoryChangedEvent(Long categoryId) {
+}
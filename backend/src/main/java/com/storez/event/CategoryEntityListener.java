@@ -0,0 +1,26 @@
+package com.storez.event;
+
+import com.storez.entity.Category;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA listener turning every category write into a {@link CategoryChangedEvent}.
+ */
+@Component
+@RequiredArgsConstructor
+public class CategoryEntityListener {
+
+    private final ApplicationEventPublisher publisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void afterChange(Category category) {
+        publisher.publishEvent(new CategoryChangedEvent(category.getId()));
+    }
+}
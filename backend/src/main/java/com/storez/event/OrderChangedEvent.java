@@ -0,0 +1,7 @@
+package com.storez.event;
+
+/**
+ * Published whenever an order, one of its items or one of its supplier orders is inserted, updated or deleted through JPA.
+ */
+public record OrderChangedEvent(Long orderId) {
+}
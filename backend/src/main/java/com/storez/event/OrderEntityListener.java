@@ -0,0 +1,36 @@
+package com.storez.event;
+
+import com.storez.model.Order;
+import com.storez.model.OrderItem;
+import com.storez.model.SupplierOrder;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA listener turning every order, order item and supplier order write into an {@link OrderChangedEvent}.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderEntityListener {
+
+    private final ApplicationEventPublisher publisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void afterChange(Object entity) {
+        Long orderId = null;
+        if (entity instanceof Order order) {
+            orderId = order.getId();
+        } else if (entity instanceof OrderItem item && item.getOrder() != null) {
+            orderId = item.getOrder().getId();
+        } else if (entity instanceof SupplierOrder supplierOrder && supplierOrder.getOrder() != null) {
+            orderId = supplierOrder.getOrder().getId();
+        }
+        publisher.publishEvent(new OrderChangedEvent(orderId));
+    }
+}
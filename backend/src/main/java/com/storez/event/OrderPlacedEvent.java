@@ -0,0 +1,13 @@
+package com.storez.event;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Delivered through the order_events outbox once a checkout has committed, on a relay thread.
+ * The same order may be delivered more than once. productQuantities (units per product) is null in events
+ * written before it was added.
+ */
+public record OrderPlacedEvent(Long orderId, Long userId, LocalDateTime createdAt, double total,
+                               Map<Long, Double> supplierSubtotals, Map<Long, Integer> productQuantities) {
+}
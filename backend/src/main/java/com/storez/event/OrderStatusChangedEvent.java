@@ -0,0 +1,13 @@
+package com.storez.event;
+
+import com.storez.model.OrderStatus;
+
+import java.util.List;
+
+/**
+ * Delivered through the order_events outbox once a status change has committed, on a relay thread.
+ * supplierId is the supplier whose part of the order changed, null when the order itself changed;
+ * supplierIds are the suppliers with a part in the order that the change concerns.
+ */
+public record OrderStatusChangedEvent(Long orderId, OrderStatus status, Long supplierId, List<Long> supplierIds) {
+}
@@ -0,0 +1,36 @@
+package com.storez.event;
+
+import com.storez.model.Product;
+
+/**
+ * Published whenever a product row is inserted, updated or deleted through JPA.
+ * Carries the state after the change so listeners don't need to reload the entity.
+ */
+public record ProductChangedEvent(
+        Type type,
+        Long productId,
+        String name,
+        String category,
+        String status,
+        Long supplierId
+) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    public static ProductChangedEvent of(Type type, Product product) {
+        return new ProductChangedEvent(
+                type,
+                product.getId(),
+                product.getName(),
+                product.getCategory(),
+                product.getStatus(),
+                product.getSupplier() != null ? product.getSupplier().getId() : null
+        );
+    }
+
+    public boolean isVisible() {
+        return type != Type.DELETED && "APPROVED".equals(status);
+    }
+}
@@ -0,0 +1,36 @@
+package com.storez.event;
+
+import com.storez.model.Product;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA listener turning every product write into a {@link ProductChangedEvent}, so in-memory
+ * structures (suggestion index, caches) stay in sync whichever controller made the change.
+ * Consumers should use @TransactionalEventListener to only react once the write is committed.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductEntityListener {
+
+    private final ApplicationEventPublisher publisher;
+
+    @PostPersist
+    public void afterPersist(Product product) {
+        publisher.publishEvent(ProductChangedEvent.of(ProductChangedEvent.Type.CREATED, product));
+    }
+
+    @PostUpdate
+    public void afterUpdate(Product product) {
+        publisher.publishEvent(ProductChangedEvent.of(ProductChangedEvent.Type.UPDATED, product));
+    }
+
+    @PostRemove
+    public void afterRemove(Product product) {
+        publisher.publishEvent(ProductChangedEvent.of(ProductChangedEvent.Type.DELETED, product));
+    }
+}
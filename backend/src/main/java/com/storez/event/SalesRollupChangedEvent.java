@@ -0,0 +1,10 @@
+package com.storez.event;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Published when sales rollup rows have been rebuilt for the given days.
+ */
+public record SalesRollupChangedEvent(Collection<LocalDate> days) {
+}
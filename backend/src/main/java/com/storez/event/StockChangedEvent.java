@@ -0,0 +1,10 @@
+package com.storez.event;
+
+import java.util.Collection;
+
+/**
+ * Published when stock is changed by a bulk UPDATE (checkout reservations), which bypasses the JPA
+ * listeners behind {@link ProductChangedEvent}. Only the stock moved: names, status and visibility did not.
+ */
+public record StockChangedEvent(Collection<Long> productIds) {
+}
@@ -48,6 +48,24 @@ public class GlobalExceptionHandler {
         return buildError(HttpStatus.NOT_FOUND, ex.getMessage());
     }
 
+    // 🔹 Curseur de pagination invalide
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<?> handleInvalidCursor(InvalidCursorException ex) {
+        return buildError(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    // 🔹 Paramètre "fields" invalide
+    @ExceptionHandler(InvalidFieldsException.class)
+    public ResponseEntity<?> handleInvalidFields(InvalidFieldsException ex) {
+        return buildError(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    // 🔹 Stock insuffisant au moment de la commande (rien n'a été réservé ni créé)
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<?> handleInsufficientStock(InsufficientStockException ex) {
+        return buildError(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
     // 🔹 Erreurs générales
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> handleGeneric(Exception ex) {
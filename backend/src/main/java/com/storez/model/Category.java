@@ -1,5 +1,6 @@
 package com.storez.entity;
 
+import com.storez.event.CategoryEntityListener;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -8,6 +9,7 @@ import lombok.Setter;
 @Getter
 @Setter
 @Table(name = "category")
+@EntityListeners(CategoryEntityListener.class)
 public class Category {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
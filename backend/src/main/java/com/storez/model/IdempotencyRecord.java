@@ -0,0 +1,39 @@
+package com.storez.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of a request sent with an Idempotency-Key, replayed to retries of the same request.
+ * The row is inserted (completed = false) before the request runs, which is what makes a key single-use.
+ * While it runs, its owner renews lockedUntil; an in-progress row whose lease ran out belongs to a request
+ * that died, and a retry may take it over.
+ */
+@Entity
+@Table(name = "idempotency_key", indexes = {
+    @Index(name = "idx_idempotency_key_expires", columnList = "expiresAt")
+})
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class IdempotencyRecord {
+  // SHA-256 of caller, method, path and key
+  @Id
+  @Column(length = 64)
+  private String id;
+
+  // SHA-256 of the query string and body, to reject a key reused for another request
+  @Column(length = 64)
+  private String fingerprint;
+
+  private boolean completed;
+
+  private Integer responseStatus;
+  private String contentType;
+  private byte[] responseBody;
+
+  private LocalDateTime createdAt;
+  private LocalDateTime expiresAt;
+
+  // Lease of the running request (in-progress rows only); null on rows claimed before leases existed
+  private LocalDateTime lockedUntil;
+}
@@ -1,5 +1,7 @@
 package com.storez.model;
 
+import com.storez.event.OrderEntityListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
@@ -7,11 +9,19 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@EntityListeners(OrderEntityListener.class)
+@Table(name = "orders", indexes = {
+    @Index(name = "idx_orders_user_created", columnList = "user_id, createdAt DESC, id DESC"),
+    // Admin order console: newest first, optionally filtered on status
+    @Index(name = "idx_orders_created", columnList = "createdAt DESC, id DESC"),
+    @Index(name = "idx_orders_status_created", columnList = "status, createdAt DESC, id DESC")
+})
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Order {
+  // Pooled sequence: ids are reserved 50 at a time, so inserts can be batched (IDENTITY disables it)
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_id")
+  @SequenceGenerator(name = "orders_id", sequenceName = "orders_seq", allocationSize = 50)
   private Long id;
 
   @Builder.Default
@@ -21,6 +31,9 @@ public class Order {
   @Builder.Default
   private OrderStatus status = OrderStatus.PENDING;
 
+  // Sum of the items' lineTotal, stored at checkout so revenue is a SUM over this table
+  private Double total;
+
   @ManyToOne
   @JoinColumn(name = "user_id")
   @JsonIgnoreProperties({"passwordHash", "role", "status"})
@@ -29,4 +42,9 @@ public class Order {
   @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
   @JsonIgnoreProperties("order")
   private List<OrderItem> items;
+
+  // Per-supplier fulfilment records, saved with the order
+  @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+  @JsonIgnore
+  private List<SupplierOrder> supplierOrders;
 }
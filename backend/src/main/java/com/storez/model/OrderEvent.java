@@ -0,0 +1,47 @@
+package com.storez.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Outbox row written in the transaction that changes an order, and delivered to the in-process listeners
+ * after the commit by {@link com.storez.service.OrderEventRelay}. Delivery is at least once: listeners
+ * must tolerate seeing the same event twice.
+ */
+@Entity
+@Table(name = "order_events")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class OrderEvent {
+  // Pooled sequence, as on Order
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_events_id")
+  @SequenceGenerator(name = "order_events_id", sequenceName = "order_events_seq", allocationSize = 50)
+  private Long id;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 32)
+  private OrderEventType type;
+
+  private Long orderId;
+
+  // Event record serialized as JSON
+  @Column(columnDefinition = "TEXT", nullable = false)
+  private String payload;
+
+  private LocalDateTime createdAt;
+
+  // Not delivered before this time (retry backoff)
+  private LocalDateTime availableAt;
+
+  // Null while pending
+  private LocalDateTime processedAt;
+
+  private int attempts;
+
+  // Set when delivery gave up after the maximum number of attempts
+  private boolean failed;
+
+  @Column(length = 1000)
+  private String lastError;
+}
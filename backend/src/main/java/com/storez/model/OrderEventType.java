@@ -0,0 +1,6 @@
+package com.storez.model;
+
+public enum OrderEventType {
+    ORDER_PLACED,
+    ORDER_STATUS_CHANGED
+}
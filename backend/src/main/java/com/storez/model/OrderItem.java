@@ -1,25 +1,50 @@
 package com.storez.model;
 
+import com.storez.event.OrderEntityListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
+@EntityListeners(OrderEntityListener.class)
+@Table(name = "order_item", indexes = {
+    // Supplier screens go product (idx_product_supplier) -> its order lines -> their order
+    @Index(name = "idx_order_item_product", columnList = "product_id, order_id"),
+    @Index(name = "idx_order_item_order", columnList = "order_id"),
+    @Index(name = "idx_order_item_supplier_order", columnList = "supplier_order_id")
+})
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class OrderItem {
+  // Pooled sequence, as on Order
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_id")
+  @SequenceGenerator(name = "order_item_id", sequenceName = "order_item_seq", allocationSize = 50)
   private Long id;
 
   private int quantity;
 
+  // Price paid, copied from the product at checkout so later price changes don't rewrite history
+  private Double unitPrice;
+
+  // unitPrice * quantity
+  private Double lineTotal;
+
   @ManyToOne
   @JoinColumn(name = "product_id")
-  @JsonIgnoreProperties({"supplier"})
+  // Order screens only show name, price and image: don't trigger the lazy description load
+  @JsonIgnoreProperties({"supplier", "description"})
   private Product product;
 
   @ManyToOne
   @JoinColumn(name = "order_id")
   @JsonIgnoreProperties({"items", "user"})
   private Order order;
+
+  // Null when the product had no supplier at checkout. Cascaded so the supplier order is inserted
+  // before its first item instead of the item being updated afterwards.
+  @ManyToOne(fetch = FetchType.LAZY, cascade = CascadeType.PERSIST)
+  @JoinColumn(name = "supplier_order_id")
+  @JsonIgnore
+  private SupplierOrder supplierOrder;
 }
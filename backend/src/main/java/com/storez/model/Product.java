@@ -1,16 +1,24 @@
 package com.storez.model;
 
+import com.storez.event.ProductEntityListener;
 import jakarta.persistence.*;
 import lombok.*;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 @Entity
-@Table(name = "product")
+@Table(name = "product", indexes = {
+    @Index(name = "idx_product_status_price", columnList = "status, price"),
+    @Index(name = "idx_product_status_name", columnList = "status, name"),
+    @Index(name = "idx_product_supplier", columnList = "supplier_id")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@EntityListeners(ProductEntityListener.class)
 public class Product {
 
   @Id
@@ -18,7 +26,14 @@ public class Product {
   private Long id;
 
   private String name;
-  @Column(columnDefinition = "TEXT")
+  // Mapped to PostgreSQL text; a columnDefinition here would make ddl-auto re-issue ALTER TYPE on
+  // every start, which fails once the search_vector generated column depends on it.
+  // Lazy (bytecode enhancement): prices, stock and names are read without the description bytes.
+  // It stays in this table because search_vector is generated from it.
+  @JdbcTypeCode(SqlTypes.LONG32VARCHAR)
+  @Basic(fetch = FetchType.LAZY)
+  @ToString.Exclude
+  @EqualsAndHashCode.Exclude
   private String description;
   private double price;
   private String image;
@@ -0,0 +1,6 @@
+package com.storez.model;
+
+public enum ProductRanking {
+    BEST_SELLERS,
+    TRENDING
+}
@@ -0,0 +1,35 @@
+package com.storez.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint of one counter of the in-memory best-seller and trending rankings
+ * ({@link com.storez.service.ProductSalesTracker}), reloaded on startup.
+ */
+@Entity
+@Table(name = "product_sales_counter")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class ProductSalesCounter {
+  // Pooled sequence so a checkpoint is inserted as JDBC batches
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_sales_counter_id")
+  @SequenceGenerator(name = "product_sales_counter_id", sequenceName = "product_sales_counter_seq", allocationSize = 50)
+  private Long id;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 32)
+  private ProductRanking ranking;
+
+  @Column(nullable = false)
+  private Long productId;
+
+  // Units sold (best sellers) or decayed units as of checkpointAt (trending)
+  private double score;
+
+  // Possible overestimate of score
+  private double error;
+
+  private LocalDateTime checkpointAt;
+}
@@ -0,0 +1,7 @@
+package com.storez.model;
+
+public enum RollupDimension {
+    ALL,
+    SUPPLIER,
+    CATEGORY
+}
@@ -0,0 +1,35 @@
+package com.storez.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDate;
+
+/**
+ * Sales of one day for one dimension value: the whole shop (ALL, empty key), one supplier (its id)
+ * or one product category. Charts sum these rows instead of reading the order history.
+ * Rows are rebuilt per day from the orders by {@link com.storez.service.SalesRollupService}.
+ */
+@Entity
+@Table(name = "sales_rollup_daily",
+    uniqueConstraints = @UniqueConstraint(name = "uk_sales_rollup_dimension_key_day", columnNames = {"dimension", "dim_key", "day"}))
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class SalesRollup {
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(nullable = false)
+  private LocalDate day;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 16)
+  private RollupDimension dimension;
+
+  // Supplier id or category name; empty for ALL
+  @Column(nullable = false)
+  private String dimKey;
+
+  private double revenue;
+  private long units;
+  private long orderCount;
+}
@@ -0,0 +1,17 @@
+package com.storez.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDate;
+
+/**
+ * Day whose sales rollups are out of date since an order of that day was placed or changed.
+ * Written with the order event, cleared when the day is rebuilt.
+ */
+@Entity
+@Table(name = "sales_rollup_dirty_day")
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class SalesRollupDirtyDay {
+  @Id
+  private LocalDate day;
+}
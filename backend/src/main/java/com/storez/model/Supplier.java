@@ -1,9 +1,11 @@
 package com.storez.model;
 
+import com.storez.event.AccountEntityListener;
 import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
+@EntityListeners(AccountEntityListener.class)
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
 public class Supplier {
   @Id
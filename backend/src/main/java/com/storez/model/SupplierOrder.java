@@ -0,0 +1,47 @@
+package com.storez.model;
+
+import com.storez.event.OrderEntityListener;
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One supplier's part of a customer order: its items, subtotal and fulfilment status.
+ * Created at checkout so supplier screens read their own rows instead of filtering every order's items.
+ */
+@Entity
+@EntityListeners(OrderEntityListener.class)
+@Table(name = "supplier_order",
+    uniqueConstraints = @UniqueConstraint(name = "uk_supplier_order_order_supplier", columnNames = {"order_id", "supplier_id"}),
+    indexes = @Index(name = "idx_supplier_order_supplier_created", columnList = "supplier_id, createdAt DESC, id DESC"))
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor @Builder
+public class SupplierOrder {
+  // Pooled sequence, as on Order
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "supplier_order_id")
+  @SequenceGenerator(name = "supplier_order_id", sequenceName = "supplier_order_seq", allocationSize = 50)
+  private Long id;
+
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "order_id", nullable = false)
+  private Order order;
+
+  // Null once the supplier account is deleted; the sales history is kept
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "supplier_id")
+  private Supplier supplier;
+
+  // Copy of the order date so the supplier's list is sorted from this table's index
+  private LocalDateTime createdAt;
+
+  @Enumerated(EnumType.STRING)
+  @Builder.Default
+  private OrderStatus status = OrderStatus.PENDING;
+
+  // Sum of price * quantity of this supplier's items at checkout
+  private double subtotal;
+
+  @OneToMany(mappedBy = "supplierOrder")
+  private List<OrderItem> items;
+}
@@ -1,10 +1,12 @@
 // src/main/java/com/storez/model/User.java
 package com.storez.model;
 
+import com.storez.event.AccountEntityListener;
 import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
+@EntityListeners(AccountEntityListener.class)
 @Table(name = "users")
 @Getter
 @Setter
@@ -0,0 +1,77 @@
+package com.storez.pagination;
+
+import com.storez.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Encodes the position of the last row of a page (id + sort key) into an opaque URL-safe token.
+ * The sort property and direction are part of the token so a cursor from one ordering cannot be replayed
+ * against another. A null sort key is written as an explicit marker (rows with a null key sort last).
+ */
+public final class CursorCodec {
+
+    private static final String SEPARATOR = "|";
+    private static final char NULL_KEY = '-';
+    private static final char KEY = '+';
+
+    private CursorCodec() {
+    }
+
+    /** Decoded cursor: the id and sort key (null when the row had none) of the last row already returned. */
+    public record Position(Long id, Comparable<?> key) {
+    }
+
+    public static String encode(KeysetSort<?> sort, Long id, Comparable<?> key) {
+        if (id == null) {
+            throw new IllegalArgumentException("Cursor rows must have an id");
+        }
+        String raw = id + SEPARATOR + sort.property() + SEPARATOR + sort.direction() + SEPARATOR
+                + (key == null ? String.valueOf(NULL_KEY) : KEY + String.valueOf(key));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Position decode(KeysetSort<?> sort, String token) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+
+        String[] parts = raw.split("\\" + SEPARATOR, 4);
+        if (parts.length != 4 || parts[3].isEmpty()) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+        if (!sort.property().equals(parts[1]) || !sort.direction().name().equals(parts[2])) {
+            throw new InvalidCursorException("Cursor does not match the requested sort order");
+        }
+
+        try {
+            Long id = Long.valueOf(parts[0]);
+            char marker = parts[3].charAt(0);
+            if (marker == NULL_KEY && parts[3].length() == 1) {
+                return new Position(id, null);
+            }
+            if (marker != KEY) {
+                throw new InvalidCursorException("Malformed cursor");
+            }
+            return new Position(id, parseKey(sort.keyType(), parts[3].substring(1)));
+        } catch (RuntimeException e) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+    }
+
+    private static Comparable<?> parseKey(Class<?> type, String value) {
+        if (type == Long.class) return Long.valueOf(value);
+        if (type == Integer.class) return Integer.valueOf(value);
+        if (type == Double.class) return Double.valueOf(value);
+        if (type == LocalDateTime.class) return LocalDateTime.parse(value);
+        if (type == Instant.class) return Instant.parse(value);
+        if (type == String.class) return value;
+        throw new IllegalStateException("Unsupported cursor key type: " + type.getName());
+    }
+}
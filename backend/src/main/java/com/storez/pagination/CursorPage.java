@@ -0,0 +1,14 @@
+package com.storez.pagination;
+
+import java.util.List;
+
+/**
+ * One page of a keyset (cursor) listing.
+ * nextCursor is null on the last page; otherwise it is passed back as the "after" parameter.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,105 @@
+package com.storez.pagination;
+
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.util.List;
+
+/**
+ * Keyset (cursor) pagination on top of any {@link JpaSpecificationExecutor}.
+ * Instead of OFFSET, each page seeks past the last returned (sortKey, id) pair, so page N costs
+ * the same index range scan as page 1. One extra row is fetched to know whether a next page exists.
+ */
+public final class KeysetPaging {
+
+    private KeysetPaging() {
+    }
+
+    /**
+     * Loads at most limit rows matching spec in the given order. Lets a page be read as entities
+     * (through a repository) or as a DTO projection.
+     */
+    @FunctionalInterface
+    public interface RowLoader<T, R> {
+        List<R> load(Specification<T> spec, Sort sort, int limit);
+    }
+
+    /**
+     * @param repository repository to query
+     * @param filter     listing filters, may be null
+     * @param sort       ordering and key extraction
+     * @param after      cursor from the previous page, null or blank for the first page
+     * @param size       page size
+     * @param fetchPaths associations to fetch with the page (entity graph), to avoid per-row lookups
+     */
+    public static <T> CursorPage<T> fetch(
+            JpaSpecificationExecutor<T> repository,
+            Specification<T> filter,
+            KeysetSort<T> sort,
+            String after,
+            int size,
+            String... fetchPaths
+    ) {
+        RowLoader<T, T> loader = (spec, order, limit) -> repository.findBy(spec, q -> {
+            var query = q.sortBy(order).limit(limit);
+            return fetchPaths.length == 0 ? query.all() : query.project(fetchPaths).all();
+        });
+        return fetch(loader, filter, sort, after, size);
+    }
+
+    /**
+     * Same as above for rows of type R read by the given loader; the filter and the seek predicate
+     * are expressed on entity T, the cursor is read from the returned rows.
+     */
+    public static <T, R> CursorPage<R> fetch(
+            RowLoader<T, R> loader,
+            Specification<T> filter,
+            KeysetSort<R> sort,
+            String after,
+            int size
+    ) {
+        Specification<T> spec = Specification.where(filter);
+        if (after != null && !after.isBlank()) {
+            spec = spec.and(seekAfter(sort, CursorCodec.decode(sort, after)));
+        }
+
+        List<R> rows = loader.load(spec, sort.toSort(), size + 1);
+
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+
+        List<R> page = rows.subList(0, size);
+        R last = page.get(size - 1);
+        String next = CursorCodec.encode(sort, sort.idExtractor().apply(last), sort.keyExtractor().apply(last));
+        return new CursorPage<>(List.copyOf(page), next);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T> Specification<T> seekAfter(KeysetSort<?> sort, CursorCodec.Position position) {
+        return (root, query, cb) -> {
+            Path<Long> id = root.get("id");
+            Predicate idAfter = sort.ascending()
+                    ? cb.greaterThan(id, position.id())
+                    : cb.lessThan(id, position.id());
+            if (sort.isIdOnly()) {
+                return idAfter;
+            }
+
+            // Null keys sort last: after a null key only other null keys remain, and every null key
+            // comes after a non-null one
+            Path key = root.get(sort.property());
+            Comparable value = position.key();
+            if (value == null) {
+                return cb.and(cb.isNull(key), idAfter);
+            }
+            Predicate keyAfter = sort.ascending()
+                    ? cb.greaterThan(key, value)
+                    : cb.lessThan(key, value);
+            return cb.or(keyAfter, cb.and(cb.equal(key, value), idAfter), cb.isNull(key));
+        };
+    }
+}
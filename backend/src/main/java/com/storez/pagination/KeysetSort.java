@@ -0,0 +1,43 @@
+package com.storez.pagination;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.function.Function;
+
+/**
+ * Describes how a listing is ordered for keyset pagination: one sort property plus the entity id
+ * as tie-breaker, both in the same direction. Rows whose sort key is null come last in either direction.
+ *
+ * @param property     entity attribute used as the primary sort key ("id" for id-only ordering)
+ * @param direction    sort direction applied to both the key and the id
+ * @param keyType      Java type of the sort key, used to decode cursors
+ * @param keyExtractor reads the sort key from a returned row (entity or DTO)
+ * @param idExtractor  reads the id from a returned row
+ */
+public record KeysetSort<T>(
+        String property,
+        Sort.Direction direction,
+        Class<? extends Comparable<?>> keyType,
+        Function<T, ? extends Comparable<?>> keyExtractor,
+        Function<T, Long> idExtractor
+) {
+
+    public static <T> KeysetSort<T> byId(Sort.Direction direction, Function<T, Long> idExtractor) {
+        return new KeysetSort<>("id", direction, Long.class, idExtractor, idExtractor);
+    }
+
+    public boolean isIdOnly() {
+        return "id".equals(property);
+    }
+
+    public boolean ascending() {
+        return direction.isAscending();
+    }
+
+    public Sort toSort() {
+        if (isIdOnly()) {
+            return Sort.by(direction, property);
+        }
+        return Sort.by(new Sort.Order(direction, property).nullsLast(), new Sort.Order(direction, "id"));
+    }
+}
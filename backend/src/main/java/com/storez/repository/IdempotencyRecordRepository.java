@@ -0,0 +1,42 @@
+package com.storez.repository;
+
+import com.storez.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // 1 if this caller now owns the key: no row yet, an expired one, or an in-progress one whose lease
+    // ran out (its request died). 0 if the key is completed or still running under a live lease.
+    @Modifying
+    @Transactional
+    @Query(value = """
+            INSERT INTO idempotency_key AS k (id, completed, created_at, expires_at, locked_until)
+            VALUES (:id, false, :now, :expiresAt, :lockedUntil)
+            ON CONFLICT (id) DO UPDATE
+                SET completed = false, fingerprint = NULL, response_status = NULL, content_type = NULL,
+                    response_body = NULL, created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at,
+                    locked_until = EXCLUDED.locked_until
+                WHERE k.expires_at < :now
+                   OR (NOT k.completed AND (k.locked_until IS NULL OR k.locked_until < :now))
+            """, nativeQuery = true)
+    int claim(@Param("id") String id, @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt,
+              @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    // Heartbeat of the requests still running in this instance
+    @Modifying
+    @Transactional
+    @Query("UPDATE IdempotencyRecord r SET r.lockedUntil = :lockedUntil WHERE r.id IN :ids AND r.completed = false")
+    int renewLeases(@Param("ids") Collection<String> ids, @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
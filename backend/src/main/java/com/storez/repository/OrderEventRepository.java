@@ -0,0 +1,37 @@
+package com.storez.repository;
+
+import com.storez.model.OrderEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OrderEventRepository extends JpaRepository<OrderEvent, Long> {
+
+    // Locks up to :limit due events; rows locked by another relay thread are skipped, not waited for
+    @Query(value = """
+            SELECT * FROM order_events
+            WHERE processed_at IS NULL AND NOT failed AND available_at <= :now
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OrderEvent> claimDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Query("SELECT COUNT(e) FROM OrderEvent e WHERE e.processedAt IS NULL AND e.failed = false")
+    long countPending();
+
+    @Query("SELECT MIN(e.createdAt) FROM OrderEvent e WHERE e.processedAt IS NULL AND e.failed = false")
+    LocalDateTime oldestPendingCreatedAt();
+
+    long countByFailedTrue();
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OrderEvent e WHERE e.processedAt < :before")
+    int deleteProcessedBefore(@Param("before") LocalDateTime before);
+}
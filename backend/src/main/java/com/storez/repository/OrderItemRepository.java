@@ -1,10 +1,76 @@
 package com.storez.repository;
 
+import com.storez.dto.OrderLineView;
+import com.storez.dto.SupplierEarning;
 import com.storez.model.OrderItem;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
+
+    /** Units sold of one product, in total and decayed by the age of each order. */
+    interface ProductUnits {
+        Long getProductId();
+        long getUnits();
+        double getRecentUnits();
+    }
+
     List<OrderItem> findByProduct_Supplier_Id(Long supplierId);
     List<OrderItem> findByProductId(Long productId);
+
+    // Lines of one page of orders, with the image for the order screens
+    @Query("""
+            SELECT new com.storez.dto.OrderLineView(i.order.id, i.id, i.quantity, i.unitPrice, i.lineTotal,
+                    p.id, p.name, p.image)
+            FROM OrderItem i LEFT JOIN i.product p
+            WHERE i.order.id IN :orderIds
+            ORDER BY i.id
+            """)
+    List<OrderLineView> findLinesByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
+
+    // Only the supplier's own lines (its supplier orders) of one page of orders, with the image for the
+    // supplier order screen
+    @Query("""
+            SELECT new com.storez.dto.OrderLineView(i.order.id, i.id, i.quantity, i.unitPrice, i.lineTotal,
+                    p.id, p.name, p.image)
+            FROM OrderItem i JOIN i.supplierOrder so LEFT JOIN i.product p
+            WHERE so.supplier.id = :supplierId AND i.order.id IN :orderIds
+            ORDER BY i.id
+            """)
+    List<OrderLineView> findLinesBySupplierIdAndOrderIdIn(@Param("supplierId") Long supplierId,
+                                                          @Param("orderIds") Collection<Long> orderIds);
+
+    // Supplier sales, newest order first, read through the supplier's orders (idx_supplier_order_supplier_created)
+    @Query(value = """
+            SELECT new com.storez.dto.SupplierEarning(i.id, so.order.id, p.name, i.lineTotal, so.createdAt)
+            FROM OrderItem i JOIN i.supplierOrder so LEFT JOIN i.product p
+            WHERE so.supplier.id = :supplierId
+            ORDER BY so.createdAt DESC, so.id DESC, i.id
+            """,
+            countQuery = """
+            SELECT count(i) FROM OrderItem i JOIN i.supplierOrder so WHERE so.supplier.id = :supplierId
+            """)
+    Page<SupplierEarning> findEarningsBySupplierId(@Param("supplierId") Long supplierId, Pageable pageable);
+
+    // One pass over the order lines, used to seed the best-seller and trending rankings when there is no
+    // checkpoint yet; a line loses half its weight every halfLifeSeconds (floored at 2^-1000)
+    @Query(value = """
+            SELECT i.product_id AS productId,
+                   SUM(i.quantity) AS units,
+                   SUM(i.quantity * power(CAST(0.5 AS double precision),
+                       LEAST(CAST(EXTRACT(EPOCH FROM (CAST(:now AS timestamp) - o.created_at)) AS double precision)
+                             / :halfLifeSeconds, 1000))) AS recentUnits
+            FROM order_item i JOIN orders o ON o.id = i.order_id
+            WHERE i.product_id IS NOT NULL
+            GROUP BY i.product_id
+            """, nativeQuery = true)
+    List<ProductUnits> sumUnitsByProduct(@Param("now") LocalDateTime now,
+                                         @Param("halfLifeSeconds") double halfLifeSeconds);
 }
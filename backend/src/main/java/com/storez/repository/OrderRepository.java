@@ -1,10 +1,62 @@
 package com.storez.repository;
 
+import com.storez.dto.OrderSummary;
+import com.storez.dto.RevenueSummary;
+import com.storez.dto.StatusCount;
 import com.storez.model.Order;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order>,
+        OrderRepositoryCustom {
     List<Order> findByUserId(Long userId);
+
+    @Query("SELECT o.createdAt FROM Order o WHERE o.id = :id")
+    Optional<LocalDateTime> findCreatedAtById(@Param("id") Long id);
+
+    @Query("SELECT MIN(o.createdAt) FROM Order o")
+    LocalDateTime findFirstCreatedAt();
+
+    // Totals are stored on the order at checkout: no join on items or products
+    @Query("""
+            SELECT new com.storez.dto.OrderSummary(o.id, o.createdAt, o.status, o.total)
+            FROM Order o
+            WHERE o.user.id = :userId
+            ORDER BY o.createdAt DESC, o.id DESC
+            """)
+    List<OrderSummary> findRecentSummaries(@Param("userId") Long userId, Pageable pageable);
+
+    // Newest orders first, read from the primary key index (ids are pooled, so only roughly by date)
+    @Query("SELECT o.id FROM Order o ORDER BY o.id DESC")
+    List<Long> findNewestIds(Pageable pageable);
+
+    // The customer's orders per status in one pass over idx_orders_user_created
+    @Query("""
+            SELECT new com.storez.dto.StatusCount(o.status, COUNT(o))
+            FROM Order o
+            WHERE o.user.id = :userId
+            GROUP BY o.status
+            """)
+    List<StatusCount> countByStatusForUser(@Param("userId") Long userId);
+
+    @Query("SELECT new com.storez.dto.StatusCount(o.status, COUNT(o)) FROM Order o GROUP BY o.status")
+    List<StatusCount> countByStatus();
+
+    // Dashboard figures in one pass over the stored totals
+    @Query("""
+            SELECT new com.storez.dto.RevenueSummary(COUNT(o), COALESCE(SUM(o.total), 0.0),
+                    COALESCE(SUM(CASE WHEN o.createdAt >= :since THEN o.total ELSE 0.0 END), 0.0))
+            FROM Order o
+            """)
+    RevenueSummary summarizeRevenue(@Param("since") LocalDateTime since);
+
+    @Query("SELECT COALESCE(SUM(o.total), 0.0) FROM Order o WHERE o.user.id = :userId AND o.createdAt >= :since")
+    double sumTotalByUserIdSince(@Param("userId") Long userId, @Param("since") LocalDateTime since);
 }
@@ -0,0 +1,26 @@
+package com.storez.repository;
+
+import com.storez.dto.FieldSet;
+import com.storez.dto.OrderView;
+import com.storez.model.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Specification-aware projections of order headers (see {@link ProductRepositoryCustom}).
+ * Lines are loaded separately through {@link OrderItemRepository}.
+ */
+public interface OrderRepositoryCustom {
+
+    List<OrderView> findViews(Specification<Order> spec, Sort sort, int limit, FieldSet fields);
+
+    Page<OrderView> findViews(Specification<Order> spec, Pageable pageable, FieldSet fields);
+
+    /** One page without the count query: one extra row is read to know whether a next page exists. */
+    Slice<OrderView> findViewSlice(Specification<Order> spec, Pageable pageable, FieldSet fields);
+}
@@ -0,0 +1,72 @@
+package com.storez.repository;
+
+import com.storez.dto.FieldSet;
+import com.storez.dto.OrderView;
+import com.storez.model.Order;
+import com.storez.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+import static com.storez.repository.ProjectionQueries.column;
+
+class OrderRepositoryImpl implements OrderRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<OrderView> findViews(Specification<Order> spec, Sort sort, int limit, FieldSet fields) {
+        return ProjectionQueries.select(entityManager, Order.class, OrderView.class,
+                (o, cb) -> orderView(o, cb, fields), spec, sort, 0, limit);
+    }
+
+    @Override
+    public Page<OrderView> findViews(Specification<Order> spec, Pageable pageable, FieldSet fields) {
+        List<OrderView> content = ProjectionQueries.select(entityManager, Order.class, OrderView.class,
+                (o, cb) -> orderView(o, cb, fields), spec,
+                pageable.getSort(), pageable.getOffset(), pageable.getPageSize());
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> ProjectionQueries.count(entityManager, Order.class, spec));
+    }
+
+    @Override
+    public Slice<OrderView> findViewSlice(Specification<Order> spec, Pageable pageable, FieldSet fields) {
+        List<OrderView> rows = ProjectionQueries.select(entityManager, Order.class, OrderView.class,
+                (o, cb) -> orderView(o, cb, fields), spec,
+                pageable.getSort(), pageable.getOffset(), pageable.getPageSize() + 1);
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    private static Selection<OrderView> orderView(Root<Order> o, CriteriaBuilder cb, FieldSet fields) {
+        Selection<?> userId = cb.nullLiteral(Long.class);
+        Selection<?> userName = cb.nullLiteral(String.class);
+        Selection<?> userEmail = cb.nullLiteral(String.class);
+        if (fields.includes("user")) {
+            Join<Order, User> user = o.join("user", JoinType.LEFT);
+            userId = user.get("id");
+            userName = user.get("name");
+            userEmail = user.get("email");
+        }
+        return cb.construct(OrderView.class,
+                o.get("id"),
+                column(cb, fields, "createdAt", o.get("createdAt")),
+                column(cb, fields, "status", o.get("status")),
+                userId, userName, userEmail,
+                column(cb, fields, "total", o.get("total")));
+    }
+}
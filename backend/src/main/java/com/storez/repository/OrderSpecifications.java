@@ -0,0 +1,59 @@
+package com.storez.repository;
+
+import com.storez.model.Order;
+import com.storez.model.OrderStatus;
+import com.storez.model.SupplierOrder;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reusable predicates for order listings.
+ * Like {@link ProductSpecifications}, a method returns null when its filter is not set.
+ */
+public final class OrderSpecifications {
+
+    private OrderSpecifications() {
+    }
+
+    public static Specification<Order> placedBy(Long userId) {
+        if (userId == null) return null;
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    /** Orders with a part fulfilled by the supplier (EXISTS on supplier_order, so no duplicate rows). */
+    public static Specification<Order> hasPartFulfilledBy(Long supplierId) {
+        if (supplierId == null) return null;
+        return (root, query, cb) -> {
+            Subquery<Long> parts = query.subquery(Long.class);
+            Root<SupplierOrder> part = parts.from(SupplierOrder.class);
+            parts.select(part.get("id")).where(
+                    cb.equal(part.get("order"), root),
+                    cb.equal(part.get("supplier").get("id"), supplierId));
+            return cb.exists(parts);
+        };
+    }
+
+    public static Specification<Order> hasStatus(OrderStatus status) {
+        if (status == null) return null;
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Order> createdFrom(LocalDateTime from) {
+        if (from == null) return null;
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+    }
+
+    public static Specification<Order> createdBefore(LocalDateTime before) {
+        if (before == null) return null;
+        return (root, query, cb) -> cb.lessThan(root.get("createdAt"), before);
+    }
+
+    /** The supplier's own parts of orders. */
+    public static Specification<SupplierOrder> fulfilledBy(Long supplierId) {
+        if (supplierId == null) return null;
+        return (root, query, cb) -> cb.equal(root.get("supplier").get("id"), supplierId);
+    }
+}
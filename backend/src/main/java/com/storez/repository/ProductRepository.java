@@ -1,14 +1,117 @@
 package com.storez.repository;
 
+import com.storez.dto.LabelCount;
+import com.storez.dto.ProductSnapshot;
 import com.storez.model.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        ProductRepositoryCustom {
     List<Product> findByStatus(String status);
+    long countByStatus(String status);
     List<Product> findBySupplierId(Long supplierId);
+    long countBySupplierId(Long supplierId);
+    long countBySupplierIdAndStatus(Long supplierId, String status);
+
+    // Largest categories first; the pageable keeps the top N
+    @Query("""
+            SELECT new com.storez.dto.LabelCount(p.category, COUNT(p))
+            FROM Product p
+            GROUP BY p.category
+            ORDER BY COUNT(p) DESC, p.category
+            """)
+    List<LabelCount> countByCategory(Pageable pageable);
+
+    // description is lazy: the graph loads it in the same query for callers that render it
+    @EntityGraph(attributePaths = "description")
+    @Query("SELECT p FROM Product p WHERE p.supplier.id = :supplierId")
+    List<Product> findWithDetailsBySupplierId(@Param("supplierId") Long supplierId);
+
+    // Atomic reservation: decrements only if enough stock is left, 0 rows updated otherwise.
+    // Bulk update, so no entity listener runs (see StockReservationService).
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock - :quantity WHERE p.id = :id AND p.stock >= :quantity")
+    int reserveStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    // Everything the product cache keeps, supplier name included, in one query
+    @Query("""
+            SELECT new com.storez.dto.ProductSnapshot(p.id, p.name, p.description, p.price, p.image, p.category,
+                   p.stock, p.status, s.id, s.companyName)
+            FROM Product p LEFT JOIN p.supplier s
+            WHERE p.id = :id
+            """)
+    Optional<ProductSnapshot> findSnapshotById(@Param("id") Long id);
+
+    // Same for several products at once (the products of a checkout, cache misses of the listings)
+    @Query("""
+            SELECT new com.storez.dto.ProductSnapshot(p.id, p.name, p.description, p.price, p.image, p.category,
+                   p.stock, p.status, s.id, s.companyName)
+            FROM Product p LEFT JOIN p.supplier s
+            WHERE p.id IN :ids
+            """)
+    List<ProductSnapshot> findSnapshotsByIdIn(@Param("ids") Collection<Long> ids);
 
     @Query("SELECT DISTINCT p.category FROM Product p WHERE p.status = 'APPROVED'")
     List<String> findDistinctCategories();
+
+    // Only the columns needed to build the suggestion index
+    @Query("SELECT p.id AS id, p.name AS name, p.category AS category FROM Product p WHERE p.status = 'APPROVED'")
+    List<NameAndCategory> findApprovedNames();
+
+    /**
+     * Ranked search over approved products (see db/schema/product_search.sql).
+     * Matches either the weighted tsvector (name > category > description) or a fuzzy name match,
+     * and ranks by full-text score plus trigram word similarity.
+     */
+    @Query(value = """
+            SELECT p.id AS id,
+                   ts_rank_cd(p.search_vector, websearch_to_tsquery('english', :text)) * 2
+                     + word_similarity(lower(:text), lower(p.name)) AS rank
+            FROM product p
+            WHERE p.status = 'APPROVED'
+              AND (p.search_vector @@ websearch_to_tsquery('english', :text)
+                   OR lower(:text) <% lower(p.name))
+              AND (CAST(:category AS text) IS NULL OR lower(p.category) = lower(CAST(:category AS text)))
+              AND (CAST(:minPrice AS float8) IS NULL OR p.price >= CAST(:minPrice AS float8))
+              AND (CAST(:maxPrice AS float8) IS NULL OR p.price <= CAST(:maxPrice AS float8))
+            ORDER BY rank DESC, p.id
+            """,
+            countQuery = """
+            SELECT count(*)
+            FROM product p
+            WHERE p.status = 'APPROVED'
+              AND (p.search_vector @@ websearch_to_tsquery('english', :text)
+                   OR lower(:text) <% lower(p.name))
+              AND (CAST(:category AS text) IS NULL OR lower(p.category) = lower(CAST(:category AS text)))
+              AND (CAST(:minPrice AS float8) IS NULL OR p.price >= CAST(:minPrice AS float8))
+              AND (CAST(:maxPrice AS float8) IS NULL OR p.price <= CAST(:maxPrice AS float8))
+            """,
+            nativeQuery = true)
+    Page<SearchHit> searchRanked(@Param("text") String text,
+                                 @Param("category") String category,
+                                 @Param("minPrice") Double minPrice,
+                                 @Param("maxPrice") Double maxPrice,
+                                 Pageable pageable);
+
+    interface NameAndCategory {
+        Long getId();
+        String getName();
+        String getCategory();
+    }
+
+    interface SearchHit {
+        Long getId();
+        Double getRank();
+    }
 }
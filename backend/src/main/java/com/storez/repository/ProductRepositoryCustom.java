@@ -0,0 +1,27 @@
+package com.storez.repository;
+
+import com.storez.dto.AdminProductView;
+import com.storez.dto.FieldSet;
+import com.storez.dto.ProductView;
+import com.storez.model.Product;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Specification-aware DTO projections: only the columns of the view (narrowed further by the requested
+ * {@link FieldSet}) are selected and no entity is hydrated.
+ */
+public interface ProductRepositoryCustom {
+
+    Page<ProductView> findViews(Specification<Product> spec, Pageable pageable, FieldSet fields);
+
+    List<ProductView> findViews(Specification<Product> spec, Sort sort, int limit, FieldSet fields);
+
+    Page<AdminProductView> findAdminViews(Specification<Product> spec, Pageable pageable, FieldSet fields);
+
+    List<AdminProductView> findAdminViews(Specification<Product> spec, Sort sort, int limit, FieldSet fields);
+}
@@ -0,0 +1,101 @@
+package com.storez.repository;
+
+import com.storez.dto.AdminProductView;
+import com.storez.dto.FieldSet;
+import com.storez.dto.ProductView;
+import com.storez.model.Product;
+import com.storez.model.Supplier;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+import static com.storez.repository.ProjectionQueries.column;
+
+class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<ProductView> findViews(Specification<Product> spec, Pageable pageable, FieldSet fields) {
+        List<ProductView> content = ProjectionQueries.select(entityManager, Product.class, ProductView.class,
+                (p, cb) -> productView(p, cb, fields), spec,
+                pageable.getSort(), pageable.getOffset(), pageable.getPageSize());
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> ProjectionQueries.count(entityManager, Product.class, spec));
+    }
+
+    @Override
+    public List<ProductView> findViews(Specification<Product> spec, Sort sort, int limit, FieldSet fields) {
+        return ProjectionQueries.select(entityManager, Product.class, ProductView.class,
+                (p, cb) -> productView(p, cb, fields), spec, sort, 0, limit);
+    }
+
+    @Override
+    public Page<AdminProductView> findAdminViews(Specification<Product> spec, Pageable pageable, FieldSet fields) {
+        List<AdminProductView> content = ProjectionQueries.select(entityManager, Product.class,
+                AdminProductView.class, (p, cb) -> adminProductView(p, cb, fields), spec,
+                pageable.getSort(), pageable.getOffset(), pageable.getPageSize());
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> ProjectionQueries.count(entityManager, Product.class, spec));
+    }
+
+    @Override
+    public List<AdminProductView> findAdminViews(Specification<Product> spec, Sort sort, int limit,
+                                                 FieldSet fields) {
+        return ProjectionQueries.select(entityManager, Product.class, AdminProductView.class,
+                (p, cb) -> adminProductView(p, cb, fields), spec, sort, 0, limit);
+    }
+
+    private static Selection<ProductView> productView(Root<Product> p, CriteriaBuilder cb, FieldSet fields) {
+        // The supplier join is only added when its name is requested
+        Selection<?> supplierName = fields.includes("supplierName")
+                ? cb.coalesce(p.<Product, Supplier>join("supplier", JoinType.LEFT).<String>get("companyName"),
+                        ProductView.UNKNOWN_SUPPLIER)
+                : cb.nullLiteral(String.class);
+        return cb.construct(ProductView.class,
+                p.get("id"),
+                column(cb, fields, "name", p.get("name")),
+                column(cb, fields, "description", p.get("description")),
+                column(cb, fields, "price", p.get("price")),
+                column(cb, fields, "image", p.get("image")),
+                column(cb, fields, "category", p.get("category")),
+                column(cb, fields, "stock", p.get("stock")),
+                column(cb, fields, "status", p.get("status")),
+                supplierName);
+    }
+
+    private static Selection<AdminProductView> adminProductView(Root<Product> p, CriteriaBuilder cb,
+                                                                FieldSet fields) {
+        Selection<?> supplierId = cb.nullLiteral(Long.class);
+        Selection<?> supplierCompanyName = cb.nullLiteral(String.class);
+        Selection<?> supplierEmail = cb.nullLiteral(String.class);
+        if (fields.includes("supplier")) {
+            Join<Product, Supplier> supplier = p.join("supplier", JoinType.LEFT);
+            supplierId = supplier.get("id");
+            supplierCompanyName = supplier.get("companyName");
+            supplierEmail = supplier.get("email");
+        }
+        return cb.construct(AdminProductView.class,
+                p.get("id"),
+                column(cb, fields, "name", p.get("name")),
+                column(cb, fields, "description", p.get("description")),
+                column(cb, fields, "price", p.get("price")),
+                column(cb, fields, "image", p.get("image")),
+                column(cb, fields, "category", p.get("category")),
+                column(cb, fields, "stock", p.get("stock")),
+                column(cb, fields, "status", p.get("status")),
+                supplierId, supplierCompanyName, supplierEmail);
+    }
+}
@@ -0,0 +1,7 @@
+package com.storez.repository;
+
+import com.storez.model.ProductSalesCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ProductSalesCounterRepository extends JpaRepository<ProductSalesCounter, Long> {
+}
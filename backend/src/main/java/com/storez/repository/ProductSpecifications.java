@@ -0,0 +1,54 @@
+package com.storez.repository;
+
+import com.storez.model.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+
+/**
+ * Reusable predicates for product listings.
+ * Every method returns null when its filter is not set, so they can be chained with
+ * {@link Specification#and(Specification)} and the unused ones simply drop out of the WHERE clause.
+ */
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> hasStatus(String status) {
+        if (status == null || status.isBlank()) return null;
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Product> idIn(Collection<Long> ids) {
+        if (ids == null) return null;
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    public static Specification<Product> inCategory(String category) {
+        if (category == null || category.isBlank()) return null;
+        String normalized = category.trim().toLowerCase();
+        // Matches the (status, lower(category)) expression index
+        return (root, query, cb) -> cb.equal(cb.lower(root.get("category")), normalized);
+    }
+
+    public static Specification<Product> nameContains(String text) {
+        if (text == null || text.isBlank()) return null;
+        String pattern = "%" + escapeLike(text.trim().toLowerCase()) + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("name")), pattern, '\\');
+    }
+
+    public static Specification<Product> priceAtLeast(Double minPrice) {
+        if (minPrice == null) return null;
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+    }
+
+    public static Specification<Product> priceAtMost(Double maxPrice) {
+        if (maxPrice == null) return null;
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,88 @@
+package com.storez.repository;
+
+import com.storez.dto.FieldSet;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.query.NullPrecedence;
+import org.hibernate.query.criteria.JpaOrder;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Criteria plumbing shared by the repository fragments that build DTO projections from a
+ * {@link Specification}, which Spring Data's fluent findBy can't do.
+ */
+final class ProjectionQueries {
+
+    private ProjectionQueries() {
+    }
+
+    static <E, R> List<R> select(EntityManager entityManager, Class<E> entity, Class<R> type,
+                                 BiFunction<Root<E>, CriteriaBuilder, Selection<R>> selection,
+                                 Specification<E> spec, Sort sort, long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<R> query = cb.createQuery(type);
+        Root<E> root = query.from(entity);
+        query.select(selection.apply(root, cb));
+        applyFilter(spec, root, query, cb);
+        query.orderBy(toOrders(sort, root, cb));
+
+        TypedQuery<R> typed = entityManager.createQuery(query);
+        if (offset > 0) {
+            typed.setFirstResult(Math.toIntExact(offset));
+        }
+        typed.setMaxResults(limit);
+        return typed.getResultList();
+    }
+
+    static <E> long count(EntityManager entityManager, Class<E> entity, Specification<E> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<E> root = query.from(entity);
+        query.select(cb.count(root));
+        applyFilter(spec, root, query, cb);
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    /** The attribute if the field was requested, otherwise a typed NULL so the column is never read. */
+    static Selection<?> column(CriteriaBuilder cb, FieldSet fields, String field, Path<?> path) {
+        return fields.includes(field)
+                ? path
+                : cb.nullLiteral(ClassUtils.resolvePrimitiveIfNecessary(path.getJavaType()));
+    }
+
+    // QueryUtils ignores Sort.NullHandling for Criteria queries; Hibernate's JpaOrder carries it
+    private static <E> List<Order> toOrders(Sort sort, Root<E> root, CriteriaBuilder cb) {
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            Order jpaOrder = QueryUtils.toOrders(Sort.by(order), root, cb).get(0);
+            if (order.getNullHandling() != Sort.NullHandling.NATIVE) {
+                jpaOrder = ((JpaOrder) jpaOrder).nullPrecedence(
+                        order.getNullHandling() == Sort.NullHandling.NULLS_FIRST ? NullPrecedence.FIRST : NullPrecedence.LAST);
+            }
+            orders.add(jpaOrder);
+        }
+        return orders;
+    }
+
+    private static <E> void applyFilter(Specification<E> spec, Root<E> root,
+                                        CriteriaQuery<?> query, CriteriaBuilder cb) {
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
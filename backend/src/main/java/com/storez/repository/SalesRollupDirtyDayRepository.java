@@ -0,0 +1,22 @@
+package com.storez.repository;
+
+import com.storez.model.SalesRollupDirtyDay;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+public interface SalesRollupDirtyDayRepository extends JpaRepository<SalesRollupDirtyDay, LocalDate> {
+
+    @Modifying
+    @Query(value = "INSERT INTO sales_rollup_dirty_day (day) VALUES (:day) ON CONFLICT (day) DO NOTHING",
+            nativeQuery = true)
+    int markDirty(@Param("day") LocalDate day);
+
+    @Modifying
+    @Query("DELETE FROM SalesRollupDirtyDay d WHERE d.day IN :days")
+    int deleteDays(@Param("days") Collection<LocalDate> days);
+}
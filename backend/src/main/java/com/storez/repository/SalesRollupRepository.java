@@ -0,0 +1,73 @@
+package com.storez.repository;
+
+import com.storez.model.SalesRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SalesRollupRepository extends JpaRepository<SalesRollup, Long> {
+
+    /** One bucket of a sales chart; period is the first day of the bucket (yyyy-MM-dd). */
+    interface SalesBucket {
+        String getPeriod();
+        String getKey();
+        double getRevenue();
+        long getUnits();
+        long getOrders();
+    }
+
+    @Modifying
+    @Query(value = "DELETE FROM sales_rollup_daily WHERE day >= CAST(:from AS date) AND day < CAST(:to AS date)",
+            nativeQuery = true)
+    int deleteDays(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Every dimension of every day in [from, to) in one pass over the orders (GROUPING SETS).
+    // Cancelled orders and cancelled supplier parts are not sales.
+    @Modifying
+    @Query(value = """
+            INSERT INTO sales_rollup_daily (day, dimension, dim_key, revenue, units, order_count)
+            SELECT CAST(o.created_at AS date),
+                   CASE WHEN GROUPING(so.supplier_id) = 0 THEN 'SUPPLIER'
+                        WHEN GROUPING(p.category) = 0 THEN 'CATEGORY'
+                        ELSE 'ALL' END,
+                   CASE WHEN GROUPING(so.supplier_id) = 0 THEN CAST(so.supplier_id AS varchar)
+                        WHEN GROUPING(p.category) = 0 THEN COALESCE(p.category, '')
+                        ELSE '' END,
+                   COALESCE(SUM(i.line_total), 0), SUM(i.quantity), COUNT(DISTINCT o.id)
+            FROM orders o
+            JOIN order_item i ON i.order_id = o.id
+            LEFT JOIN supplier_order so ON so.id = i.supplier_order_id
+            LEFT JOIN product p ON p.id = i.product_id
+            WHERE o.created_at >= :from AND o.created_at < :to
+              AND o.status <> 'CANCELLED'
+              AND (so.status IS NULL OR so.status <> 'CANCELLED')
+            GROUP BY GROUPING SETS ((CAST(o.created_at AS date)),
+                                    (CAST(o.created_at AS date), so.supplier_id),
+                                    (CAST(o.created_at AS date), p.category))
+            HAVING GROUPING(so.supplier_id) = 1 OR so.supplier_id IS NOT NULL
+            """, nativeQuery = true)
+    int insertDays(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Rows per bucket (day, week, month or year) and key; key null means every key of the dimension
+    @Query(value = """
+            SELECT to_char(date_trunc(:unit, r.day), 'YYYY-MM-DD') AS period,
+                   r.dim_key AS key,
+                   SUM(r.revenue) AS revenue,
+                   SUM(r.units) AS units,
+                   SUM(r.order_count) AS orders
+            FROM sales_rollup_daily r
+            WHERE r.dimension = :dimension
+              AND (CAST(:key AS varchar) IS NULL OR r.dim_key = :key)
+              AND r.day >= :from AND r.day <= :to
+            GROUP BY 1, 2
+            ORDER BY 1, 3 DESC
+            """, nativeQuery = true)
+    List<SalesBucket> findBuckets(@Param("dimension") String dimension, @Param("key") String key,
+                                  @Param("from") LocalDate from, @Param("to") LocalDate to,
+                                  @Param("unit") String unit);
+}
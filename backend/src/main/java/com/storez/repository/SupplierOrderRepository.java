@@ -0,0 +1,37 @@
+package com.storez.repository;
+
+import com.storez.dto.OrderSummary;
+import com.storez.model.SupplierOrder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface SupplierOrderRepository extends JpaRepository<SupplierOrder, Long>, SupplierOrderRepositoryCustom {
+    Optional<SupplierOrder> findByOrderIdAndSupplierId(Long orderId, Long supplierId);
+    long countBySupplierId(Long supplierId);
+
+    @Query("SELECT COALESCE(SUM(so.subtotal), 0.0) FROM SupplierOrder so WHERE so.supplier.id = :supplierId")
+    double sumSubtotalBySupplierId(@Param("supplierId") Long supplierId);
+
+    @Query("SELECT so.supplier.id FROM SupplierOrder so WHERE so.order.id = :orderId")
+    List<Long> findSupplierIdsByOrderId(@Param("orderId") Long orderId);
+
+    // Newest parts first, read from idx_supplier_order_supplier_created
+    @Query("""
+            SELECT new com.storez.dto.OrderSummary(so.order.id, so.createdAt, so.status, so.subtotal)
+            FROM SupplierOrder so
+            WHERE so.supplier.id = :supplierId
+            ORDER BY so.createdAt DESC, so.id DESC
+            """)
+    List<OrderSummary> findRecentSummaries(@Param("supplierId") Long supplierId, Pageable pageable);
+
+    // Keeps the sales history of a deleted supplier, like its products
+    @Modifying
+    @Query("UPDATE SupplierOrder so SET so.supplier = null WHERE so.supplier.id = :supplierId")
+    int detachSupplier(@Param("supplierId") Long supplierId);
+}
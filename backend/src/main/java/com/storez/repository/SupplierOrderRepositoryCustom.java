@@ -0,0 +1,17 @@
+package com.storez.repository;
+
+import com.storez.dto.FieldSet;
+import com.storez.dto.OrderView;
+import com.storez.model.SupplierOrder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * A supplier's parts of orders projected as {@link OrderView}s: the order id and date, the part's own
+ * status and its subtotal as total. Lines are loaded separately through {@link OrderItemRepository}.
+ */
+public interface SupplierOrderRepositoryCustom {
+
+    Page<OrderView> findViews(Specification<SupplierOrder> spec, Pageable pageable, FieldSet fields);
+}
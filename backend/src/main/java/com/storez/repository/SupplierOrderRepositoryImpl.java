@@ -0,0 +1,55 @@
+package com.storez.repository;
+
+import com.storez.dto.FieldSet;
+import com.storez.dto.OrderView;
+import com.storez.model.Order;
+import com.storez.model.SupplierOrder;
+import com.storez.model.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+import static com.storez.repository.ProjectionQueries.column;
+
+class SupplierOrderRepositoryImpl implements SupplierOrderRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<OrderView> findViews(Specification<SupplierOrder> spec, Pageable pageable, FieldSet fields) {
+        List<OrderView> content = ProjectionQueries.select(entityManager, SupplierOrder.class, OrderView.class,
+                (so, cb) -> orderView(so, cb, fields), spec,
+                pageable.getSort(), pageable.getOffset(), pageable.getPageSize());
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> ProjectionQueries.count(entityManager, SupplierOrder.class, spec));
+    }
+
+    private static Selection<OrderView> orderView(Root<SupplierOrder> so, CriteriaBuilder cb, FieldSet fields) {
+        Selection<?> userId = cb.nullLiteral(Long.class);
+        Selection<?> userName = cb.nullLiteral(String.class);
+        Selection<?> userEmail = cb.nullLiteral(String.class);
+        if (fields.includes("user")) {
+            Join<Order, User> user = so.<SupplierOrder, Order>join("order").join("user", JoinType.LEFT);
+            userId = user.get("id");
+            userName = user.get("name");
+            userEmail = user.get("email");
+        }
+        return cb.construct(OrderView.class,
+                so.get("order").get("id"),
+                column(cb, fields, "createdAt", so.get("createdAt")),
+                column(cb, fields, "status", so.get("status")),
+                userId, userName, userEmail,
+                column(cb, fields, "total", so.get("subtotal")));
+    }
+}
@@ -1,10 +1,30 @@
 package com.storez.repository;
 
+import com.storez.dto.LabelCount;
 import com.storez.model.Supplier;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface SupplierRepository extends JpaRepository<Supplier, Long> {
     Optional<Supplier> findByEmail(String email);
+
+    // Id of the signed-in supplier without loading the entity (unique index on email)
+    @Query("SELECT s.id FROM Supplier s WHERE s.email = :email")
+    Optional<Long> findIdByEmail(String email);
+
+    long countByApprovedFalse();
+
+    // Suppliers with the most products (idx_product_supplier), suppliers without products included;
+    // the pageable keeps the top N
+    @Query("""
+            SELECT new com.storez.dto.LabelCount(s.companyName, COUNT(p))
+            FROM Supplier s LEFT JOIN Product p ON p.supplier = s
+            GROUP BY s.id, s.companyName
+            ORDER BY COUNT(p) DESC, s.id
+            """)
+    List<LabelCount> findTopByProductCount(Pageable pageable);
 }
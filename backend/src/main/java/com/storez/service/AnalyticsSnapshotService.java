@@ -0,0 +1,256 @@
+package com.storez.service;
+
+import com.storez.dto.RevenueSummary;
+import com.storez.dto.StatusCount;
+import com.storez.event.AccountChangedEvent;
+import com.storez.event.OrderChangedEvent;
+import com.storez.event.ProductChangedEvent;
+import com.storez.repository.OrderRepository;
+import com.storez.repository.ProductRepository;
+import com.storez.repository.SupplierRepository;
+import com.storez.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admin dashboard and analytics figures, computed in the background and served from an immutable snapshot.
+ *
+ * Requests only read the current snapshot (a volatile field): however many admins keep the dashboard open,
+ * the aggregation runs once per refresh. A single refresh thread recomputes the figures on a fixed interval
+ * and after committed writes to orders, products or accounts. Writes are coalesced: the first one schedules
+ * a refresh after the debounce delay, and every write until it starts is covered by that same refresh, so
+ * a burst of checkouts costs one recomputation per window. A write seen after a snapshot was computed marks
+ * it stale until the next one is published.
+ */
+@Slf4j
+@Service
+public class AnalyticsSnapshotService {
+
+    /** Figures of one refresh; the maps are read-only. */
+    public record Snapshot(long version, Instant computedAt, long durationMillis,
+                           Map<String, Object> dashboard, Map<String, Object> analytics) {
+    }
+
+    private final UserRepository userRepository;
+    private final SupplierRepository supplierRepository;
+    private final ProductRepository productRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate readTransaction;
+    private final Duration debounce;
+    private final Duration refreshInterval;
+    private final int categoryRows;
+    private final int supplierRows;
+    private final ScheduledExecutorService executor;
+
+    private volatile Snapshot current;
+    private final AtomicBoolean stale = new AtomicBoolean();
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+    // Starts at the boot time in millis, like DataVersions, so ETags of a previous run never match
+    private final AtomicLong versions = new AtomicLong(System.currentTimeMillis());
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    public AnalyticsSnapshotService(
+            UserRepository userRepository,
+            SupplierRepository supplierRepository,
+            ProductRepository productRepository,
+            OrderRepository orderRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${storez.analytics.debounce:2s}") Duration debounce,
+            @Value("${storez.analytics.refresh-interval:5m}") Duration refreshInterval,
+            @Value("${storez.analytics.top-categories:20}") int categoryRows,
+            @Value("${storez.analytics.top-suppliers:5}") int supplierRows
+    ) {
+        this.userRepository = userRepository;
+        this.supplierRepository = supplierRepository;
+        this.productRepository = productRepository;
+        this.orderRepository = orderRepository;
+        // All figures of a snapshot are read from the same database snapshot
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.readTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.debounce = debounce;
+        this.refreshInterval = refreshInterval;
+        this.categoryRows = categoryRows;
+        this.supplierRows = supplierRows;
+        this.executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "analytics-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        // The interval also moves the "current month" figures forward when nothing is written
+        executor.scheduleWithFixedDelay(this::refreshQuietly, 0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /** The latest snapshot; only the very first call before the initial refresh waits for one. */
+    public Snapshot current() {
+        Snapshot snapshot = current;
+        return snapshot != null ? snapshot : refreshNow();
+    }
+
+    /** True when data changed after the current snapshot was computed and a refresh is on its way. */
+    public boolean isStale() {
+        return stale.get();
+    }
+
+    /**
+     * Recomputes the figures and waits for the new snapshot. Calls queued behind a refresh that started
+     * after them share its result instead of recomputing.
+     */
+    public Snapshot refreshNow() {
+        Instant requested = Instant.now();
+        try {
+            return executor.submit(() -> {
+                Snapshot snapshot = current;
+                return snapshot != null && !snapshot.computedAt().isBefore(requested) ? snapshot : refresh();
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while refreshing analytics", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Snapshot snapshot = current;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("version", snapshot != null ? snapshot.version() : null);
+        stats.put("computedAt", snapshot != null ? snapshot.computedAt() : null);
+        stats.put("lastDurationMillis", snapshot != null ? snapshot.durationMillis() : null);
+        stats.put("stale", stale.get());
+        stats.put("refreshes", refreshes.get());
+        stats.put("failures", failures.get());
+        return stats;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        requestRefresh();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        requestRefresh();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountChanged(AccountChangedEvent event) {
+        requestRefresh();
+    }
+
+    private void requestRefresh() {
+        stale.set(true);
+        if (refreshScheduled.compareAndSet(false, true)) {
+            executor.schedule(this::refreshQuietly, debounce.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // The previous snapshot keeps being served; the next write or interval tries again
+            failures.incrementAndGet();
+            stale.set(true);
+            log.warn("Analytics refresh failed", e);
+        }
+    }
+
+    // Runs on the refresh thread only
+    private Snapshot refresh() {
+        // Cleared first: a write committed while computing schedules the next refresh
+        refreshScheduled.set(false);
+        stale.set(false);
+        Snapshot snapshot = compute();
+        current = snapshot;
+        refreshes.incrementAndGet();
+        return snapshot;
+    }
+
+    // Computes a snapshot without publishing it (package-private so tests can count its queries)
+    Snapshot compute() {
+        Instant computedAt = Instant.now();
+        long start = System.nanoTime();
+        return readTransaction.execute(status -> {
+            Map<String, Object> dashboard = computeDashboard();
+            Map<String, Object> analytics = computeAnalytics();
+            long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            return new Snapshot(versions.incrementAndGet(), computedAt, durationMillis, dashboard, analytics);
+        });
+    }
+
+    private Map<String, Object> computeDashboard() {
+        // Every figure is computed by the database: indexed COUNTs and one aggregation over the orders
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalUsers", userRepository.count());
+        stats.put("totalSuppliers", supplierRepository.count());
+        stats.put("totalProducts", productRepository.count());
+        stats.put("pendingProducts", productRepository.countByStatus("PENDING"));
+        stats.put("pendingSuppliers", supplierRepository.countByApprovedFalse());
+
+        // Order count, total revenue and revenue of the current month (sums of the stored totals)
+        LocalDateTime startOfMonth = LocalDateTime.now().withDayOfMonth(1).withHour(0).withMinute(0).withSecond(0);
+        RevenueSummary revenue = orderRepository.summarizeRevenue(startOfMonth);
+        stats.put("totalOrders", revenue.orders());
+        stats.put("totalRevenue", revenue.revenue());
+        stats.put("monthRevenue", revenue.revenueSince());
+        return Collections.unmodifiableMap(stats);
+    }
+
+    private Map<String, Object> computeAnalytics() {
+        // Three GROUP BY queries whatever the number of orders, products or suppliers; the database keeps
+        // only the top rows (LIMIT), so nothing but the chart rows is loaded
+        Map<String, Long> ordersByStatus = new LinkedHashMap<>();
+        orderRepository.countByStatus().stream()
+                .sorted(Comparator.comparing(StatusCount::status))
+                .forEach(count -> ordersByStatus.put(count.status().name(), count.count()));
+
+        Map<String, Long> productsByCategory = new LinkedHashMap<>();
+        productRepository.countByCategory(PageRequest.of(0, categoryRows))
+                .forEach(count -> productsByCategory.put(count.label(), count.count()));
+
+        Map<String, Long> topSuppliers = new LinkedHashMap<>();
+        supplierRepository.findTopByProductCount(PageRequest.of(0, supplierRows))
+                .forEach(count -> topSuppliers.put(count.label(), count.count()));
+
+        Map<String, Object> analytics = new HashMap<>();
+        analytics.put("ordersByStatus", Collections.unmodifiableMap(ordersByStatus));
+        analytics.put("productsByCategory", Collections.unmodifiableMap(productsByCategory));
+        analytics.put("topSuppliers", Collections.unmodifiableMap(topSuppliers));
+        return Collections.unmodifiableMap(analytics);
+    }
+}
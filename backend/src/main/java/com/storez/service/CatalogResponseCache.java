@@ -0,0 +1,134 @@
+package com.storez.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache of already-serialized JSON for the public catalog endpoints.
+ *
+ * Entries are keyed by the catalog {@link DataVersions version} plus the request URI and query string, so
+ * any product or category write makes every stored body unreachable at once; the old entries are dropped
+ * the first time the new version is seen. A hit is written to the socket as raw bytes, skipping DTO
+ * building and Jackson. Bodies above {@link #GZIP_THRESHOLD} bytes are also kept gzip-compressed for
+ * clients that accept it.
+ *
+ * The same version is the strong ETag of every response, so a client revalidating an unchanged catalog
+ * gets a 304 before the cache, the database or the serializer is consulted. Like the versions, the cache
+ * relies on this process seeing every catalog write (single instance, see
+ * {@link com.storez.config.SingleInstanceLock}).
+ */
+@Service
+public class CatalogResponseCache {
+
+    private static final int GZIP_THRESHOLD = 1024;
+
+    private record CachedBody(byte[] json, byte[] gzip) {
+        int weight() {
+            return json.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+
+    private final DataVersions dataVersions;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, CachedBody> bodies;
+    private volatile long cachedVersion;
+
+    public CatalogResponseCache(
+            DataVersions dataVersions,
+            ObjectMapper objectMapper,
+            @Value("${storez.cache.catalog-responses.max-bytes:33554432}") long maxBytes
+    ) {
+        this.dataVersions = dataVersions;
+        this.objectMapper = objectMapper;
+        this.bodies = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedBody body) -> body.weight())
+                .recordStats()
+                .build();
+        this.cachedVersion = dataVersions.current(DataVersions.Scope.CATALOG);
+    }
+
+    /**
+     * Serves the response for the current request from the cache, building and serializing it with
+     * bodySupplier on a miss. Exceptions thrown by the supplier (e.g. not found) are not cached.
+     * Returns null once a 304 has been written for a matching If-None-Match.
+     */
+    public ResponseEntity<byte[]> respond(ServletWebRequest webRequest, Supplier<Object> bodySupplier) {
+        HttpServletRequest request = webRequest.getRequest();
+        boolean gzipAccepted = acceptsGzip(request);
+        long version = dataVersions.current(DataVersions.Scope.CATALOG);
+
+        // The encoding is part of the representation, so it needs its own validator
+        String etag = "\"catalog" + (gzipAccepted ? "-gzip-" : "-") + version + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+
+        if (version != cachedVersion) {
+            cachedVersion = version;
+            bodies.invalidateAll();
+        }
+
+        String query = request.getQueryString();
+        String key = version + "|" + request.getRequestURI() + (query != null ? "?" + query : "");
+        CachedBody body = bodies.get(key, k -> serialize(bodySupplier.get()));
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (body.gzip() != null && gzipAccepted) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.gzip());
+        }
+        return response.body(body.json());
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = ProductCache.describe(bodies.stats(), bodies.estimatedSize());
+        stats.put("catalogVersion", cachedVersion);
+        return stats;
+    }
+
+    private CachedBody serialize(Object value) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(value);
+            return new CachedBody(json, json.length > GZIP_THRESHOLD ? gzip(json) : null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize catalog response", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return accept != null && accept.toLowerCase().contains("gzip");
+    }
+}
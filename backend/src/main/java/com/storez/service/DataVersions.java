@@ -0,0 +1,99 @@
+package com.storez.service;
+
+import com.storez.event.AccountChangedEvent;
+import com.storez.event.CategoryChangedEvent;
+import com.storez.event.OrderChangedEvent;
+import com.storez.event.ProductChangedEvent;
+import com.storez.event.SalesRollupChangedEvent;
+import com.storez.event.StockChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic counters bumped after every committed write, one per area of data.
+ *
+ * Anything derived from that data (cached bodies, ETags) can be keyed by the relevant counters and is
+ * stale as soon as one moves. Counters start at the boot time in millis, so validators handed out by a
+ * previous run never match after a restart.
+ *
+ * The counters only see the writes of this process: they are valid because a single backend runs against
+ * the database, which {@link com.storez.config.SingleInstanceLock} enforces at startup.
+ */
+@Component
+public class DataVersions {
+
+    public enum Scope {
+        /** Products and categories */
+        CATALOG,
+        /** Orders and order items */
+        ORDERS,
+        /** Users and suppliers */
+        ACCOUNTS,
+        /** Sales rollups (charts) */
+        SALES
+    }
+
+    private final Map<Scope, AtomicLong> versions = new EnumMap<>(Scope.class);
+
+    public DataVersions() {
+        long start = System.currentTimeMillis();
+        for (Scope scope : Scope.values()) {
+            versions.put(scope, new AtomicLong(start));
+        }
+    }
+
+    public long current(Scope scope) {
+        return versions.get(scope).get();
+    }
+
+    public long bump(Scope scope) {
+        return versions.get(scope).incrementAndGet();
+    }
+
+    /**
+     * Strong ETag built from the given counters, e.g. "dashboard-1729245000123.1729245000130".
+     * The tag distinguishes representations that share the same counters (another user, another encoding).
+     */
+    public String etag(String tag, Scope... scopes) {
+        StringBuilder etag = new StringBuilder("\"").append(tag).append('-');
+        for (int i = 0; i < scopes.length; i++) {
+            if (i > 0) etag.append('.');
+            etag.append(current(scopes[i]));
+        }
+        return etag.append('"').toString();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        bump(Scope.CATALOG);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        bump(Scope.CATALOG);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryChanged(CategoryChangedEvent event) {
+        bump(Scope.CATALOG);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        bump(Scope.ORDERS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountChanged(AccountChangedEvent event) {
+        bump(Scope.ACCOUNTS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSalesRollupChanged(SalesRollupChangedEvent event) {
+        bump(Scope.SALES);
+    }
+}
@@ -0,0 +1,145 @@
+package com.storez.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving summary of the heaviest keys of a weighted stream, in memory bounded by its capacity.
+ *
+ * Up to capacity keys are counted exactly. When a new key arrives and the summary is full, it replaces
+ * the key with the smallest count and inherits that count as its error: a reported count overestimates
+ * the true one by at most its error, and any key whose true weight exceeds total / capacity is tracked.
+ * Counters live in a hash map (O(1) lookup) and in a min-heap on the count (O(log capacity) repair).
+ *
+ * Not thread-safe: callers synchronize.
+ */
+public final class HeavyHitters {
+
+    /** Estimated count of one key; the true count is between count - error and count. */
+    public record Counter(long key, double count, double error) {
+    }
+
+    private static final class Entry {
+        private long key;
+        private double count;
+        private double error;
+        private int index;
+    }
+
+    private final int capacity;
+    private final Map<Long, Entry> entries;
+    private final Entry[] heap;
+    private int size;
+
+    public HeavyHitters(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.entries = new HashMap<>(capacity * 2);
+        this.heap = new Entry[capacity];
+    }
+
+    public void add(long key, double weight) {
+        add(key, weight, 0);
+    }
+
+    /** Adds weight to the key; error is the overestimate already carried by that weight (restored counters). */
+    public void add(long key, double weight, double error) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.count += weight;
+            entry.error += error;
+            siftDown(entry.index);
+            return;
+        }
+        if (size < capacity) {
+            entry = new Entry();
+            entry.key = key;
+            entry.count = weight;
+            entry.error = error;
+            entry.index = size;
+            heap[size++] = entry;
+            entries.put(key, entry);
+            siftUp(entry.index);
+            return;
+        }
+        // Full: the smallest counter is handed over to the new key
+        Entry min = heap[0];
+        entries.remove(min.key);
+        min.key = key;
+        min.error = min.count + error;
+        min.count += weight;
+        entries.put(key, min);
+        siftDown(0);
+    }
+
+    /** Multiplies every count by factor (0 < factor); the order of the keys is unchanged. */
+    public void scale(double factor) {
+        for (int i = 0; i < size; i++) {
+            heap[i].count *= factor;
+            heap[i].error *= factor;
+        }
+    }
+
+    /** Every tracked counter, largest count first. */
+    public List<Counter> counters() {
+        List<Counter> counters = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            counters.add(new Counter(heap[i].key, heap[i].count, heap[i].error));
+        }
+        counters.sort(Comparator.comparingDouble(Counter::count).reversed().thenComparingLong(Counter::key));
+        return counters;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        entries.clear();
+        Arrays.fill(heap, 0, size, null);
+        size = 0;
+    }
+
+    private void siftUp(int index) {
+        Entry entry = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (heap[parent].count <= entry.count) {
+                break;
+            }
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(entry, index);
+    }
+
+    private void siftDown(int index) {
+        Entry entry = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1].count < heap[child].count) {
+                child++;
+            }
+            if (entry.count <= heap[child].count) {
+                break;
+            }
+            place(heap[child], index);
+            index = child;
+        }
+        place(entry, index);
+    }
+
+    private void place(Entry entry, int index) {
+        heap[index] = entry;
+        entry.index = index;
+    }
+}
@@ -0,0 +1,224 @@
+package com.storez.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.storez.model.IdempotencyRecord;
+import com.storez.repository.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Store of Idempotency-Key outcomes: the idempotency_key table (bounded by a TTL) behind a small
+ * in-memory cache of recent responses.
+ *
+ * The first request with a key claims it with an INSERT ... ON CONFLICT and runs; every other request with
+ * the same key gets its stored response. Duplicates arriving while the first one is still running wait for
+ * it: on a local future when it runs in this JVM, by polling the row otherwise. Outcomes that should not be
+ * replayed (5xx, exceptions) release the key so a retry runs again.
+ *
+ * A running request holds a short lease on its row (storez.idempotency.lease), renewed on a schedule while
+ * it runs. If the process dies mid-request the lease runs out and the next retry takes the key over, instead
+ * of getting 409 until the replay TTL expires. The lease must outlast any pause of a live owner, or two
+ * requests may run with the same key.
+ */
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    private static final long POLL_INTERVAL_MILLIS = 50;
+
+    /** Response replayed to duplicates, with the fingerprint of the request that produced it. */
+    public record StoredResponse(int status, String contentType, byte[] body, String fingerprint) {
+    }
+
+    /** Result of {@link #begin}: either the caller owns the key and runs, or it replays a response. */
+    public record Claim(boolean owner, StoredResponse replay) {
+    }
+
+    /** Thrown when the request owning a key is still running after the wait timeout. */
+    public static class KeyInProgressException extends RuntimeException {
+        public KeyInProgressException() {
+            super("A request with this Idempotency-Key is still being processed");
+        }
+    }
+
+    private final IdempotencyRecordRepository repository;
+    private final Duration ttl;
+    private final Duration lease;
+    private final Duration waitTimeout;
+    private final Cache<String, StoredResponse> recent;
+    // Requests running in this JVM, completed with their response (or null when the key is released)
+    private final ConcurrentMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+    // Keys claimed by requests running in this JVM, whose leases are renewed
+    private final Set<String> leased = ConcurrentHashMap.newKeySet();
+
+    public IdempotencyService(
+            IdempotencyRecordRepository repository,
+            @Value("${storez.idempotency.ttl:24h}") Duration ttl,
+            @Value("${storez.idempotency.lease:30s}") Duration lease,
+            @Value("${storez.idempotency.wait-timeout:10s}") Duration waitTimeout,
+            @Value("${storez.idempotency.cache-size:10000}") long cacheSize
+    ) {
+        this.repository = repository;
+        this.ttl = ttl;
+        this.lease = lease;
+        this.waitTimeout = waitTimeout;
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public Claim begin(String id) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (true) {
+            StoredResponse cached = recent.getIfPresent(id);
+            if (cached != null) {
+                return new Claim(false, cached);
+            }
+
+            CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(id, mine);
+            if (running != null) {
+                StoredResponse response = await(running, deadline);
+                if (response != null) {
+                    return new Claim(false, response);
+                }
+                continue; // released by its owner: try to claim it
+            }
+
+            boolean owner = false;
+            try {
+                LocalDateTime now = LocalDateTime.now();
+                // Also takes over an expired key, or one whose owner died (lease ran out)
+                if (repository.claim(id, now, now.plus(ttl), now.plus(lease)) == 1) {
+                    leased.add(id);
+                    owner = true;
+                    return new Claim(true, null);
+                }
+
+                // Claimed before this JVM saw it (other instance, or completed before a restart)
+                StoredResponse response = pollStored(id, deadline);
+                if (response != null) {
+                    recent.put(id, response);
+                    return new Claim(false, response);
+                }
+            } finally {
+                // Local duplicates waiting on this attempt try again (or replay) unless it owns the key
+                if (!owner) {
+                    inFlight.remove(id, mine);
+                    mine.complete(null);
+                }
+            }
+        }
+    }
+
+    public void complete(String id, StoredResponse response) {
+        try {
+            repository.findById(id).ifPresent(record -> {
+                record.setCompleted(true);
+                record.setFingerprint(response.fingerprint());
+                record.setResponseStatus(response.status());
+                record.setContentType(response.contentType());
+                record.setResponseBody(response.body());
+                repository.save(record);
+            });
+            recent.put(id, response);
+        } finally {
+            finish(id, response);
+        }
+    }
+
+    public void release(String id) {
+        try {
+            repository.deleteById(id);
+        } finally {
+            finish(id, null);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${storez.idempotency.lease-renewal:PT10S}")
+    public void renewLeases() {
+        if (leased.isEmpty()) {
+            return;
+        }
+        try {
+            repository.renewLeases(List.copyOf(leased), LocalDateTime.now().plus(lease));
+        } catch (RuntimeException e) {
+            log.warn("Could not renew {} idempotency leases", leased.size(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${storez.idempotency.purge-interval:PT1H}")
+    public void purgeExpired() {
+        int deleted = repository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Purged {} expired idempotency keys", deleted);
+        }
+    }
+
+    private void finish(String id, StoredResponse response) {
+        leased.remove(id);
+        CompletableFuture<StoredResponse> running = inFlight.remove(id);
+        if (running != null) {
+            running.complete(response);
+        }
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> running, long deadline) {
+        try {
+            return running.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            throw new KeyInProgressException();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KeyInProgressException();
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Waits for the row to be completed; null if it was released (deleted) meanwhile or its owner's lease
+     * ran out, so the caller can claim it.
+     */
+    private StoredResponse pollStored(String id, long deadline) {
+        while (true) {
+            Optional<IdempotencyRecord> record = repository.findById(id);
+            if (record.isEmpty()) {
+                return null;
+            }
+            IdempotencyRecord current = record.get();
+            if (current.isCompleted()) {
+                return new StoredResponse(current.getResponseStatus(), current.getContentType(),
+                        current.getResponseBody(), current.getFingerprint());
+            }
+            if (current.getLockedUntil() == null || current.getLockedUntil().isBefore(LocalDateTime.now())) {
+                return null;
+            }
+            if (System.nanoTime() > deadline) {
+                throw new KeyInProgressException();
+            }
+            try {
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new KeyInProgressException();
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.storez.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.storez.event.OrderPlacedEvent;
+import com.storez.event.OrderStatusChangedEvent;
+import com.storez.model.Order;
+import com.storez.model.OrderEvent;
+import com.storez.model.OrderEventType;
+import com.storez.model.OrderItem;
+import com.storez.model.OrderStatus;
+import com.storez.model.SupplierOrder;
+import com.storez.repository.OrderEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes order events to the order_events outbox in the caller's transaction: the event exists if and
+ * only if the order change is committed. Work that reacts to orders listens for the event records
+ * delivered by {@link OrderEventRelay} instead of running inside the checkout.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderEventOutbox {
+
+    private final OrderEventRepository orderEventRepository;
+    private final OrderEventRelay relay;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderPlaced(Order order) {
+        Map<Long, Double> supplierSubtotals = new LinkedHashMap<>();
+        for (SupplierOrder supplierOrder : order.getSupplierOrders()) {
+            supplierSubtotals.put(supplierOrder.getSupplier().getId(), supplierOrder.getSubtotal());
+        }
+        Map<Long, Integer> productQuantities = new LinkedHashMap<>();
+        for (OrderItem item : order.getItems()) {
+            if (item.getProduct() != null) {
+                productQuantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+            }
+        }
+        append(OrderEventType.ORDER_PLACED, order.getId(), new OrderPlacedEvent(order.getId(),
+                order.getUser().getId(), order.getCreatedAt(), order.getTotal(), supplierSubtotals, productQuantities));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderStatusChanged(Long orderId, OrderStatus status, Long supplierId, List<Long> supplierIds) {
+        append(OrderEventType.ORDER_STATUS_CHANGED, orderId,
+                new OrderStatusChangedEvent(orderId, status, supplierId, supplierIds));
+    }
+
+    private void append(OrderEventType type, Long orderId, Object event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + type + " event", e);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        orderEventRepository.save(OrderEvent.builder()
+                .type(type)
+                .orderId(orderId)
+                .payload(payload)
+                .createdAt(now)
+                .availableAt(now)
+                .build());
+
+        // Deliver right after the commit instead of at the relay's next poll
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                relay.wakeUp();
+            }
+        });
+    }
+}
@@ -0,0 +1,221 @@
+package com.storez.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.storez.event.OrderPlacedEvent;
+import com.storez.event.OrderStatusChangedEvent;
+import com.storez.model.OrderEvent;
+import com.storez.model.OrderEventType;
+import com.storez.repository.OrderEventRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the order_events outbox on a small pool of relay threads and publishes each event record to the
+ * application's listeners, outside the request that created it.
+ *
+ * Each thread locks a batch of due rows with FOR UPDATE SKIP LOCKED, so threads (and application instances)
+ * share the backlog without delivering the same row concurrently. Listeners run in their own transaction;
+ * the row is marked processed in the batch transaction afterwards, so a crash in between delivers the event
+ * again (at least once). A failing event is retried with exponential backoff, then parked as failed.
+ * Threads sleep when the outbox is empty and are woken by each commit that appends an event.
+ */
+@Slf4j
+@Service
+public class OrderEventRelay {
+
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+
+    private final OrderEventRepository orderEventRepository;
+    private final ApplicationEventPublisher publisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate batchTransaction;
+    private final TransactionTemplate deliveryTransaction;
+    private final int workers;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final int maxAttempts;
+    private final Duration retention;
+
+    private final Object signal = new Object();
+    private volatile boolean running;
+    private ExecutorService executor;
+
+    // Counters since startup, reported with the backlog by stats()
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong lastBatchMillis = new AtomicLong();
+
+    public OrderEventRelay(
+            OrderEventRepository orderEventRepository,
+            ApplicationEventPublisher publisher,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${storez.outbox.workers:2}") int workers,
+            @Value("${storez.outbox.batch-size:50}") int batchSize,
+            @Value("${storez.outbox.poll-interval:5s}") Duration pollInterval,
+            @Value("${storez.outbox.max-attempts:10}") int maxAttempts,
+            @Value("${storez.outbox.retention:7d}") Duration retention
+    ) {
+        this.orderEventRepository = orderEventRepository;
+        this.publisher = publisher;
+        this.objectMapper = objectMapper;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.deliveryTransaction = new TransactionTemplate(transactionManager);
+        this.deliveryTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.maxAttempts = maxAttempts;
+        this.retention = retention;
+    }
+
+    // Started once the schema scripts have run
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(workers, task -> {
+            Thread thread = new Thread(task, "order-relay-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            executor.execute(this::relayLoop);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        wakeUp();
+        if (executor != null) {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    public void wakeUp() {
+        synchronized (signal) {
+            signal.notifyAll();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        LocalDateTime oldest = orderEventRepository.oldestPendingCreatedAt();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", orderEventRepository.countPending());
+        stats.put("oldestPendingSeconds", oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toSeconds());
+        stats.put("failed", orderEventRepository.countByFailedTrue());
+        stats.put("delivered", delivered.get());
+        stats.put("retried", retried.get());
+        stats.put("failedSinceStart", failed.get());
+        stats.put("lastBatchMillis", lastBatchMillis.get());
+        stats.put("workers", workers);
+        stats.put("batchSize", batchSize);
+        return stats;
+    }
+
+    @Scheduled(fixedDelayString = "${storez.outbox.purge-interval:PT1H}")
+    public void purgeProcessed() {
+        int deleted = orderEventRepository.deleteProcessedBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Purged {} processed order events", deleted);
+        }
+    }
+
+    private void relayLoop() {
+        while (running) {
+            int count;
+            try {
+                count = relayBatch();
+            } catch (Exception e) {
+                log.warn("Order event relay batch failed: {}", e.getMessage());
+                count = 0;
+            }
+            // A full batch means more is probably waiting: go on without sleeping
+            if (count < batchSize && running) {
+                synchronized (signal) {
+                    try {
+                        signal.wait(pollInterval.toMillis());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private int relayBatch() {
+        long start = System.nanoTime();
+        Integer count = batchTransaction.execute(status -> {
+            List<OrderEvent> events = orderEventRepository.claimDue(LocalDateTime.now(), batchSize);
+            events.forEach(this::deliver);
+            return events.size();
+        });
+        if (count != null && count > 0) {
+            lastBatchMillis.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        return count == null ? 0 : count;
+    }
+
+    // Changes to the claimed (managed) row are written when the batch transaction commits
+    private void deliver(OrderEvent event) {
+        try {
+            Object payload = objectMapper.readValue(event.getPayload(), payloadType(event.getType()));
+            deliveryTransaction.executeWithoutResult(status -> publisher.publishEvent(payload));
+            event.setProcessedAt(LocalDateTime.now());
+            delivered.incrementAndGet();
+        } catch (Exception e) {
+            event.setAttempts(event.getAttempts() + 1);
+            event.setLastError(truncate(e.toString()));
+            if (event.getAttempts() >= maxAttempts) {
+                event.setFailed(true);
+                failed.incrementAndGet();
+                log.error("Giving up on order event {} ({}) after {} attempts", event.getId(), event.getType(), event.getAttempts(), e);
+            } else {
+                event.setAvailableAt(LocalDateTime.now().plus(backoff(event.getAttempts())));
+                retried.incrementAndGet();
+                log.warn("Order event {} ({}) failed, retrying: {}", event.getId(), event.getType(), e.getMessage());
+            }
+        }
+    }
+
+    private static Class<?> payloadType(OrderEventType type) {
+        return switch (type) {
+            case ORDER_PLACED -> OrderPlacedEvent.class;
+            case ORDER_STATUS_CHANGED -> OrderStatusChangedEvent.class;
+        };
+    }
+
+    // 2s, 4s, 8s ... capped at MAX_BACKOFF
+    private static Duration backoff(int attempts) {
+        Duration delay = Duration.ofSeconds(1L << Math.min(attempts, 20));
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= 1000 ? message : message.substring(0, 1000);
+    }
+}
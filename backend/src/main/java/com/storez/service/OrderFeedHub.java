@@ -0,0 +1,225 @@
+package com.storez.service;
+
+import com.storez.event.OrderPlacedEvent;
+import com.storez.event.OrderStatusChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live order feed for the admin and supplier dashboards, pushed as Server-Sent Events.
+ *
+ * Connections are async SseEmitters: an open stream holds no request thread. Order events delivered by the
+ * outbox relay are filtered per subscriber (admins see every order, a supplier only the orders it has a
+ * part in, with its own subtotal) and queued in the subscriber's bounded buffer. A small sender pool writes
+ * each buffer to its connection, one task per subscriber at a time. A subscriber whose buffer is full is
+ * too slow to keep up: it is disconnected, and its EventSource reconnects and reloads the list.
+ */
+@Slf4j
+@Service
+public class OrderFeedHub {
+
+    private static final String EVENT_NAME = "order";
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders;
+    private final Duration timeout;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    // Slots taken by open streams; reserved before a subscriber is registered, released when it is removed
+    private final AtomicInteger slots = new AtomicInteger();
+    private final AtomicLong evicted = new AtomicLong();
+
+    public OrderFeedHub(
+            @Value("${storez.sse.senders:2}") int senders,
+            @Value("${storez.sse.timeout:30m}") Duration timeout,
+            @Value("${storez.sse.buffer-size:64}") int bufferSize,
+            @Value("${storez.sse.max-subscribers:1000}") int maxSubscribers
+    ) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senders, task -> {
+            Thread thread = new Thread(task, "order-feed-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timeout = timeout;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+    }
+
+    /** Stream of every order, for admins. */
+    public SseEmitter subscribeAll() {
+        return subscribe(null);
+    }
+
+    /** Stream of the orders with a part fulfilled by this supplier. */
+    public SseEmitter subscribeSupplier(Long supplierId) {
+        return subscribe(supplierId);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("subscribers", subscribers.size());
+        stats.put("evicted", evicted.get());
+        return stats;
+    }
+
+    @EventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            Double amount = subscriber.supplierId == null
+                    ? Double.valueOf(event.total())
+                    : event.supplierSubtotals().get(subscriber.supplierId);
+            if (amount != null) {
+                Map<String, Object> message = new LinkedHashMap<>();
+                message.put("type", "ORDER_PLACED");
+                message.put("orderId", event.orderId());
+                message.put("createdAt", event.createdAt());
+                message.put("status", "PENDING");
+                message.put("total", amount);
+                offer(subscriber, message);
+            }
+        }
+    }
+
+    @EventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.supplierId == null || event.supplierIds().contains(subscriber.supplierId)) {
+                Map<String, Object> message = new LinkedHashMap<>();
+                message.put("type", "STATUS_CHANGED");
+                message.put("orderId", event.orderId());
+                message.put("status", event.status());
+                // null: the order itself changed; otherwise that supplier's part
+                message.put("supplierId", event.supplierId());
+                offer(subscriber, message);
+            }
+        }
+    }
+
+    // Keeps idle connections open through proxies and finds the ones the client has dropped
+    @Scheduled(fixedDelayString = "${storez.sse.heartbeat:PT15S}")
+    public void heartbeat() {
+        subscribers.forEach(subscriber -> offer(subscriber, Heartbeat.INSTANCE));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    private SseEmitter subscribe(Long supplierId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        if (!reserveSlot()) {
+            emitter.completeWithError(new IllegalStateException("Too many order feed subscribers"));
+            return emitter;
+        }
+
+        Subscriber subscriber = new Subscriber(emitter, supplierId, new ArrayBlockingQueue<>(bufferSize));
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> unregister(subscriber));
+        emitter.onTimeout(() -> unregister(subscriber));
+        emitter.onError(e -> unregister(subscriber));
+        // Flushes the response headers so the client sees the stream as open right away
+        offer(subscriber, Heartbeat.INSTANCE);
+        return emitter;
+    }
+
+    // Concurrent subscribes cannot both take the last slot
+    private boolean reserveSlot() {
+        int taken;
+        do {
+            taken = slots.get();
+            if (taken >= maxSubscribers) {
+                return false;
+            }
+        } while (!slots.compareAndSet(taken, taken + 1));
+        return true;
+    }
+
+    // Completion, timeout, error and eviction may all report the same subscriber: only the first frees its slot
+    private boolean unregister(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            slots.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    private void offer(Subscriber subscriber, Object message) {
+        if (!subscriber.queue.offer(message)) {
+            // Never blocks the relay thread: a subscriber that cannot keep up is dropped
+            if (unregister(subscriber)) {
+                evicted.incrementAndGet();
+                log.info("Order feed subscriber evicted: buffer of {} messages full", bufferSize);
+                subscriber.emitter.complete();
+            }
+            return;
+        }
+        if (subscriber.sending.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Object message;
+            while ((message = subscriber.queue.poll()) != null) {
+                if (message == Heartbeat.INSTANCE) {
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                } else {
+                    subscriber.emitter.send(SseEmitter.event().name(EVENT_NAME).data(message, MediaType.APPLICATION_JSON));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client gone (or emitter already completed)
+            unregister(subscriber);
+            subscriber.queue.clear();
+            return;
+        } finally {
+            subscriber.sending.set(false);
+        }
+        // A message queued after the last poll but before the flag was cleared
+        if (!subscriber.queue.isEmpty() && subscriber.sending.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private enum Heartbeat {
+        INSTANCE
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        // null for admins
+        private final Long supplierId;
+        private final BlockingQueue<Object> queue;
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, Long supplierId, BlockingQueue<Object> queue) {
+            this.emitter = emitter;
+            this.supplierId = supplierId;
+            this.queue = queue;
+        }
+    }
+}
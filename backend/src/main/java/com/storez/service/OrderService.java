@@ -0,0 +1,141 @@
+package com.storez.service;
+
+import com.storez.dto.ProductSnapshot;
+import com.storez.exception.ResourceNotFoundException;
+import com.storez.model.Order;
+import com.storez.model.OrderItem;
+import com.storez.model.OrderStatus;
+import com.storez.model.SupplierOrder;
+import com.storez.model.User;
+import com.storez.repository.OrderRepository;
+import com.storez.repository.ProductRepository;
+import com.storez.repository.SupplierOrderRepository;
+import com.storez.repository.SupplierRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Checkout: reserves the stock and creates the order, its items and supplier orders in one transaction.
+ * Either everything is committed or nothing is (a shortfall on any line rolls back the whole order).
+ * Status changes are here too: each change and its order_events outbox row are written in the same transaction.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderService {
+
+    private final OrderRepository orderRepository;
+    private final ProductRepository productRepository;
+    private final SupplierRepository supplierRepository;
+    private final SupplierOrderRepository supplierOrderRepository;
+    private final StockReservationService stockReservationService;
+    private final OrderEventOutbox orderEventOutbox;
+
+    /** One requested line of a checkout. */
+    public record Line(Long productId, int quantity) {
+    }
+
+    @Transactional
+    public Order placeOrder(User user, List<Line> lines) {
+        // Quantities per product (a product may appear on several lines)
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        lines.forEach(line -> quantities.merge(line.productId(), line.quantity(), Integer::sum));
+
+        // All the products of the order in one query, read in this transaction and never from the product
+        // cache: the price charged, the status and the supplier are the committed ones
+        Map<Long, ProductSnapshot> snapshots = productRepository.findSnapshotsByIdIn(quantities.keySet()).stream()
+                .collect(Collectors.toMap(ProductSnapshot::id, Function.identity()));
+        quantities.keySet().forEach(productId -> {
+            ProductSnapshot snapshot = snapshots.get(productId);
+            if (snapshot == null) {
+                throw new ResourceNotFoundException("Product not found: " + productId);
+            }
+            if (!"APPROVED".equals(snapshot.status())) {
+                throw new ResourceNotFoundException("Product not available: " + productId);
+            }
+        });
+
+        Order order = Order.builder()
+                .user(user)
+                .createdAt(LocalDateTime.now())
+                .status(OrderStatus.PENDING)
+                .total(0.0)
+                .items(new ArrayList<>())
+                .supplierOrders(new ArrayList<>())
+                .build();
+
+        // One fulfilment record per supplier, holding that supplier's items and subtotal
+        Map<Long, SupplierOrder> supplierOrders = new HashMap<>();
+
+        for (Line line : lines) {
+            ProductSnapshot snapshot = snapshots.get(line.productId());
+
+            // Price captured now: totals and revenue never read the product again
+            double lineTotal = snapshot.price() * line.quantity();
+            OrderItem orderItem = OrderItem.builder()
+                    .product(productRepository.getReferenceById(line.productId()))
+                    .quantity(line.quantity())
+                    .unitPrice(snapshot.price())
+                    .lineTotal(lineTotal)
+                    .order(order)
+                    .build();
+            order.setTotal(order.getTotal() + lineTotal);
+
+            if (snapshot.supplierId() != null) {
+                SupplierOrder supplierOrder = supplierOrders.computeIfAbsent(snapshot.supplierId(), supplierId -> {
+                    SupplierOrder created = SupplierOrder.builder()
+                            .order(order)
+                            .supplier(supplierRepository.getReferenceById(supplierId))
+                            .createdAt(order.getCreatedAt())
+                            .status(OrderStatus.PENDING)
+                            .build();
+                    order.getSupplierOrders().add(created);
+                    return created;
+                });
+                supplierOrder.setSubtotal(supplierOrder.getSubtotal() + lineTotal);
+                orderItem.setSupplierOrder(supplierOrder);
+            }
+
+            order.getItems().add(orderItem);
+        }
+
+        // Cascade inserts the order items and supplier orders as JDBC batches. They are flushed before the
+        // stock is taken so the product row locks are only held from the UPDATEs to the commit.
+        Order saved = orderRepository.saveAndFlush(order);
+        stockReservationService.reserve(quantities);
+
+        // Follow-up work (notifications, analytics) reacts to the outbox event after the commit
+        orderEventOutbox.orderPlaced(saved);
+        return saved;
+    }
+
+    /** Admin change of the order's own status; seen by every supplier with a part in the order. */
+    @Transactional
+    public Order updateStatus(Long orderId, OrderStatus status) {
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+        order.setStatus(status);
+        orderEventOutbox.orderStatusChanged(orderId, status, null,
+                supplierOrderRepository.findSupplierIdsByOrderId(orderId));
+        return order;
+    }
+
+    /** Supplier change of its own part of the order; the order and other suppliers' parts are untouched. */
+    @Transactional
+    public SupplierOrder updateSupplierStatus(Long orderId, Long supplierId, OrderStatus status) {
+        SupplierOrder supplierOrder = supplierOrderRepository.findByOrderIdAndSupplierId(orderId, supplierId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+        supplierOrder.setStatus(status);
+        orderEventOutbox.orderStatusChanged(orderId, status, supplierId, List.of(supplierId));
+        return supplierOrder;
+    }
+}
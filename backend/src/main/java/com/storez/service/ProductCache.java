@@ -0,0 +1,136 @@
+package com.storez.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.storez.dto.ProductSnapshot;
+import com.storez.event.ProductChangedEvent;
+import com.storez.event.StockChangedEvent;
+import com.storez.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded read-through cache for hot product lookups (product page, add to cart, listings). Checkout does
+ * not use it: the price it charges is read in its own transaction.
+ *
+ * Entries are immutable {@link ProductSnapshot}s, loaded with the supplier name by a single projection
+ * query. A product entry is evicted as soon as a write to that product commits ({@link ProductChangedEvent},
+ * or {@link StockChangedEvent} for checkout reservations); the TTL is only a safety net.
+ *
+ * A single miss is loaded inside the cache's per-key computation, which an invalidation of that key waits
+ * for. Several misses are loaded by one query outside of it, so each invalidation first bumps a generation
+ * (striped by id) and a bulk-loaded snapshot is only stored if the generation of its id did not move
+ * while it was being read: a snapshot read before a write commits never outlives the write's eviction.
+ */
+@Service
+public class ProductCache {
+
+    private final ProductRepository productRepository;
+
+    // Stripes of invalidation generations; ids sharing a stripe only cost each other a skipped store
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Cache<Long, ProductSnapshot> products;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final AtomicLong productInvalidations = new AtomicLong();
+
+    public ProductCache(
+            ProductRepository productRepository,
+            @Value("${storez.cache.products.max-size:10000}") long productMaxSize,
+            @Value("${storez.cache.products.ttl:10m}") Duration productTtl
+    ) {
+        this.productRepository = productRepository;
+        this.products = Caffeine.newBuilder()
+                .maximumSize(productMaxSize)
+                .expireAfterWrite(productTtl)
+                .recordStats()
+                .build();
+    }
+
+    /** Returns the product, loading it on a miss. Unknown ids are not cached. */
+    public Optional<ProductSnapshot> find(Long id) {
+        return Optional.ofNullable(products.get(id, this::load));
+    }
+
+    /** Returns the known products among ids; all misses are loaded by a single query. */
+    public Map<Long, ProductSnapshot> findAll(Collection<Long> ids) {
+        Map<Long, ProductSnapshot> found = new HashMap<>(products.getAllPresent(ids));
+        Set<Long> missing = new LinkedHashSet<>(ids);
+        missing.removeAll(found.keySet());
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        Map<Long, Long> loadedAt = new HashMap<>();
+        for (Long id : missing) {
+            loadedAt.put(id, generations.get(stripe(id)));
+        }
+        List<ProductSnapshot> loaded = productRepository.findSnapshotsByIdIn(new ArrayList<>(missing));
+        for (ProductSnapshot snapshot : loaded) {
+            long generation = loadedAt.get(snapshot.id());
+            // Checked under the key's lock: an invalidation bumps the generation before it takes that lock
+            products.asMap().compute(snapshot.id(), (id, cached) ->
+                    cached != null ? cached : (generations.get(stripe(id)) == generation ? snapshot : null));
+            found.put(snapshot.id(), snapshot);
+        }
+        return found;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidate(event.productId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        event.productIds().forEach(this::invalidate);
+    }
+
+    private void invalidate(Long id) {
+        generations.incrementAndGet(stripe(id));
+        products.invalidate(id);
+        productInvalidations.incrementAndGet();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new HashMap<>();
+        Map<String, Object> productStats = describe(products.stats(), products.estimatedSize());
+        productStats.put("invalidations", productInvalidations.get());
+        stats.put("products", productStats);
+        return stats;
+    }
+
+    private ProductSnapshot load(Long id) {
+        return productRepository.findSnapshotById(id).orElse(null);
+    }
+
+    private static int stripe(Long id) {
+        return Long.hashCode(id) & (GENERATION_STRIPES - 1);
+    }
+
+    static Map<String, Object> describe(CacheStats stats, long size) {
+        Map<String, Object> dto = new HashMap<>();
+        dto.put("size", size);
+        dto.put("hits", stats.hitCount());
+        dto.put("misses", stats.missCount());
+        dto.put("hitRate", stats.hitRate());
+        dto.put("evictions", stats.evictionCount());
+        dto.put("loadFailures", stats.loadFailureCount());
+        dto.put("averageLoadMillis", stats.averageLoadPenalty() / 1_000_000.0);
+        return dto;
+    }
+}
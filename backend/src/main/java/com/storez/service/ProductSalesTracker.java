@@ -0,0 +1,271 @@
+package com.storez.service;
+
+import com.storez.config.SingleInstanceLock;
+import com.storez.event.OrderPlacedEvent;
+import com.storez.model.ProductRanking;
+import com.storez.model.ProductSalesCounter;
+import com.storez.repository.OrderItemRepository;
+import com.storez.repository.OrderItemRepository.ProductUnits;
+import com.storez.repository.OrderRepository;
+import com.storez.repository.ProductSalesCounterRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Best-seller and trending rankings of the storefront, maintained in memory as orders are placed.
+ *
+ * Each ranking is a {@link HeavyHitters} summary of at most storez.trending.capacity products, fed with the
+ * units of every ORDER_PLACED outbox event: memory is bounded whatever the size of the catalog, and an
+ * order costs one counter update per product. Best sellers count units since the first order. Trending
+ * units lose half their weight every half-life; instead of decaying every counter, each new unit is
+ * weighted 2^(age of the ranking / half-life) and scores are divided by the same factor when read
+ * (counters are renormalized once that factor gets large).
+ *
+ * The counters are checkpointed to product_sales_counter and reloaded on startup; without a checkpoint
+ * they are seeded from the order lines in one grouped query. Redelivered events are ignored within a
+ * window of recent order ids; after a seed, that window holds the newest seeded orders, so their
+ * ORDER_PLACED events still pending in the outbox are not counted a second time.
+ *
+ * The checkpoint replaces the whole table, which is only right when this instance saw every order: it is
+ * written and read only while {@link SingleInstanceLock} is held. With the check disabled, each instance
+ * seeds its counters from the order lines and keeps them in memory only.
+ */
+@Slf4j
+@Service
+public class ProductSalesTracker {
+
+    /** Ranked product; score is units sold (best sellers) or decayed units (trending). */
+    public record Ranked(Long productId, double score) {
+    }
+
+    // Renormalize before the weight of a new unit passes 2^32
+    private static final double MAX_WEIGHT_EXPONENT = 32;
+
+    private final ProductSalesCounterRepository counterRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final OrderRepository orderRepository;
+    private final TransactionTemplate transaction;
+    private final TransactionTemplate seedTransaction;
+    private final double halfLifeMillis;
+    private final int capacity;
+    private final boolean checkpointed;
+    private final int recentOrdersWindow;
+
+    // Guarded by this
+    private final HeavyHitters bestSellers;
+    private final HeavyHitters trending;
+    private long landmarkMillis = System.currentTimeMillis();
+    private boolean dirty;
+    private final Map<Long, Boolean> recentOrders;
+
+    public ProductSalesTracker(
+            ProductSalesCounterRepository counterRepository,
+            OrderItemRepository orderItemRepository,
+            OrderRepository orderRepository,
+            PlatformTransactionManager transactionManager,
+            SingleInstanceLock singleInstanceLock,
+            @Value("${storez.trending.capacity:1000}") int capacity,
+            @Value("${storez.trending.half-life:6h}") Duration halfLife,
+            @Value("${storez.trending.recent-orders:10000}") int recentOrdersWindow
+    ) {
+        this.counterRepository = counterRepository;
+        this.orderItemRepository = orderItemRepository;
+        this.orderRepository = orderRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        // The seed's totals and order ids are read from the same snapshot
+        this.seedTransaction = new TransactionTemplate(transactionManager);
+        this.seedTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.seedTransaction.setReadOnly(true);
+        this.bestSellers = new HeavyHitters(capacity);
+        this.trending = new HeavyHitters(capacity);
+        this.halfLifeMillis = halfLife.toMillis();
+        this.capacity = capacity;
+        this.checkpointed = singleInstanceLock.isHeld();
+        this.recentOrdersWindow = recentOrdersWindow;
+        this.recentOrders = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+                return size() > recentOrdersWindow;
+            }
+        };
+    }
+
+    // Runs once the relay's delivery transaction has committed, so an event rolled back and redelivered
+    // is only counted once
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        if (event.productQuantities() == null) {
+            return;
+        }
+        long placedAt = event.createdAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        synchronized (this) {
+            if (recentOrders.put(event.orderId(), Boolean.TRUE) != null) {
+                return;
+            }
+            double weight = decayWeight(placedAt);
+            event.productQuantities().forEach((productId, quantity) -> {
+                bestSellers.add(productId, quantity);
+                trending.add(productId, quantity * weight);
+            });
+            dirty = true;
+        }
+    }
+
+    /** Tracked products of the ranking, highest score first (at most the capacity). */
+    public List<Ranked> ranking(ProductRanking ranking) {
+        synchronized (this) {
+            if (ranking == ProductRanking.BEST_SELLERS) {
+                return toRanked(bestSellers.counters(), 1);
+            }
+            return toRanked(trending.counters(), 1 / weightAt(System.currentTimeMillis()));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        List<ProductSalesCounter> rows = checkpointed ? counterRepository.findAll() : List.of();
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            if (rows.isEmpty()) {
+                seedFromOrders(now);
+                return;
+            }
+            for (ProductSalesCounter row : rows) {
+                if (row.getRanking() == ProductRanking.BEST_SELLERS) {
+                    bestSellers.add(row.getProductId(), row.getScore(), row.getError());
+                } else {
+                    // Decay for the time spent down, then weight as a unit placed now
+                    long checkpointAt = row.getCheckpointAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+                    double factor = decay(now - checkpointAt, halfLifeMillis) * decayWeight(now);
+                    trending.add(row.getProductId(), row.getScore() * factor, row.getError() * factor);
+                }
+            }
+        }
+        log.info("Restored {} product sales counters", rows.size());
+    }
+
+    @Scheduled(fixedDelayString = "${storez.trending.checkpoint-interval:PT1M}")
+    public void checkpoint() {
+        if (!checkpointed) {
+            return;
+        }
+        List<ProductSalesCounter> rows;
+        synchronized (this) {
+            if (!dirty) {
+                return;
+            }
+            dirty = false;
+            LocalDateTime checkpointAt = LocalDateTime.now();
+            rows = new ArrayList<>(bestSellers.size() + trending.size());
+            for (HeavyHitters.Counter counter : bestSellers.counters()) {
+                rows.add(counterRow(ProductRanking.BEST_SELLERS, counter, 1, checkpointAt));
+            }
+            double factor = 1 / weightAt(System.currentTimeMillis());
+            for (HeavyHitters.Counter counter : trending.counters()) {
+                rows.add(counterRow(ProductRanking.TRENDING, counter, factor, checkpointAt));
+            }
+        }
+        try {
+            transaction.executeWithoutResult(status -> {
+                counterRepository.deleteAllInBatch();
+                counterRepository.saveAll(rows);
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                dirty = true;
+            }
+            log.warn("Product sales checkpoint failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        checkpoint();
+    }
+
+    // Holding the lock
+    private void seedFromOrders(long now) {
+        LocalDateTime at = LocalDateTime.now();
+        List<Long> seededOrderIds = new ArrayList<>();
+        List<ProductUnits> units = seedTransaction.execute(status -> {
+            seededOrderIds.addAll(orderRepository.findNewestIds(PageRequest.of(0, recentOrdersWindow)));
+            return orderItemRepository.sumUnitsByProduct(at, halfLifeMillis / 1000);
+        });
+        // Events the relay delivered before the seed are part of it: start from the seed alone
+        bestSellers.clear();
+        trending.clear();
+        // Oldest first, so the window keeps the newest ones
+        for (int i = seededOrderIds.size() - 1; i >= 0; i--) {
+            recentOrders.put(seededOrderIds.get(i), Boolean.TRUE);
+        }
+        double weight = decayWeight(now);
+        // Only the top of each ranking is loaded, so the seeded counters are exact (no eviction error)
+        units.stream()
+                .sorted(Comparator.comparingLong(ProductUnits::getUnits).reversed())
+                .limit(capacity)
+                .forEach(product -> bestSellers.add(product.getProductId(), product.getUnits()));
+        units.stream()
+                .sorted(Comparator.comparingDouble(ProductUnits::getRecentUnits).reversed())
+                .limit(capacity)
+                .forEach(product -> trending.add(product.getProductId(), product.getRecentUnits() * weight));
+        dirty = !units.isEmpty();
+        log.info("Seeded product sales rankings from {} products", units.size());
+    }
+
+    // Weight of a unit placed at the given time; renormalizes the trending counters when it gets large
+    private double decayWeight(long atMillis) {
+        if ((atMillis - landmarkMillis) / halfLifeMillis > MAX_WEIGHT_EXPONENT) {
+            trending.scale(decay(atMillis - landmarkMillis, halfLifeMillis));
+            landmarkMillis = atMillis;
+        }
+        return weightAt(atMillis);
+    }
+
+    private double weightAt(long atMillis) {
+        return 1 / decay(atMillis - landmarkMillis, halfLifeMillis);
+    }
+
+    // Share of its weight a unit keeps after elapsedMillis: 1/2 per half-life
+    static double decay(double elapsedMillis, double halfLifeMillis) {
+        return Math.pow(0.5, elapsedMillis / halfLifeMillis);
+    }
+
+    // Trending scores are stored as decayed units as of the checkpoint, the error with the same factor
+    private static ProductSalesCounter counterRow(ProductRanking ranking, HeavyHitters.Counter counter, double factor,
+                                                  LocalDateTime checkpointAt) {
+        return ProductSalesCounter.builder()
+                .ranking(ranking)
+                .productId(counter.key())
+                .score(counter.count() * factor)
+                .error(counter.error() * factor)
+                .checkpointAt(checkpointAt)
+                .build();
+    }
+
+    private static List<Ranked> toRanked(List<HeavyHitters.Counter> counters, double factor) {
+        List<Ranked> ranked = new ArrayList<>(counters.size());
+        for (HeavyHitters.Counter counter : counters) {
+            ranked.add(new Ranked(counter.key(), counter.count() * factor));
+        }
+        return ranked;
+    }
+}
@@ -0,0 +1,56 @@
+package com.storez.service;
+
+import com.storez.dto.FieldSet;
+import com.storez.dto.ProductView;
+import com.storez.repository.ProductRepository;
+import com.storez.repository.ProductSpecifications;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Relevance-ranked product search backed by PostgreSQL full-text search and pg_trgm.
+ * The ranked query only returns ids; the page of products is then projected (with supplier names) in one
+ * query and put back in ranking order.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductSearchService {
+
+    private final ProductRepository productRepository;
+
+    public Page<ProductView> search(String text, String category, Double minPrice, Double maxPrice,
+                                    int page, int size, FieldSet fields) {
+        String normalizedCategory = category == null || category.isBlank() ? null : category.trim();
+        PageRequest pageable = PageRequest.of(page, size);
+
+        Page<ProductRepository.SearchHit> hits = productRepository.searchRanked(
+                text.trim(), normalizedCategory, minPrice, maxPrice, pageable);
+
+        List<Long> ids = hits.getContent().stream()
+                .map(ProductRepository.SearchHit::getId)
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, hits.getTotalElements());
+        }
+
+        Map<Long, ProductView> byId = productRepository
+                .findViews(ProductSpecifications.idIn(ids), Sort.unsorted(), ids.size(), fields).stream()
+                .collect(Collectors.toMap(ProductView::id, Function.identity()));
+        List<ProductView> ranked = ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        return new PageImpl<>(ranked, pageable, hits.getTotalElements());
+    }
+}
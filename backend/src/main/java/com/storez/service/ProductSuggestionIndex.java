@@ -0,0 +1,246 @@
+package com.storez.service;
+
+import com.storez.event.ProductChangedEvent;
+import com.storez.model.ProductRanking;
+import com.storez.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * In-memory prefix index of APPROVED product names and categories for search-as-you-type.
+ *
+ * Readers binary-search an immutable snapshot of sorted parallel arrays, so a lookup takes no lock and
+ * only allocates its results and a bounded list of candidates. Every word start of a name is indexed,
+ * so "mat" finds "Yoga Mat". Writers update a sorted master set and publish a fresh snapshot; product
+ * writes are rare compared to keystrokes, so the O(n) publish is the right trade-off.
+ *
+ * Matches are ranked: labels starting with the prefix before matches on a later word, then products by
+ * units sold (the best-seller counters of {@link ProductSalesTracker}, copied into an immutable map once
+ * a minute), then key order. Only the first {@link #MAX_CANDIDATES} matches in key order are ranked, so
+ * a one- or two-letter prefix over a large catalog ranks a subset of its matches.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductSuggestionIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSuggestionIndex.class);
+
+    public static final int MAX_LIMIT = 20;
+
+    // Matches ranked per lookup; bounds the work of very short prefixes
+    static final int MAX_CANDIDATES = 500;
+
+    /** Category entries are not tied to a product. */
+    private static final long NO_PRODUCT = -1L;
+
+    public record Suggestion(String text, String type, Long productId) {
+    }
+
+    private record Entry(String key, String label, long productId) {
+    }
+
+    // leading[i]: keys[i] is the whole label, i.e. the match is at the start of the name
+    private record Snapshot(String[] keys, String[] labels, long[] productIds, boolean[] leading) {
+    }
+
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparing(Entry::key)
+            .thenComparingLong(Entry::productId)
+            .thenComparing(Entry::label);
+
+    private final ProductRepository productRepository;
+    private final ProductSalesTracker productSalesTracker;
+
+    // Guarded by "this"; only touched by writers
+    private final TreeSet<Entry> entries = new TreeSet<>(ORDER);
+    private final Map<Long, List<Entry>> entriesByProduct = new HashMap<>();
+    private final Map<String, Integer> categoryCounts = new HashMap<>();
+    private final Map<String, String> categoryLabels = new HashMap<>();
+
+    private volatile Snapshot snapshot = new Snapshot(new String[0], new String[0], new long[0], new boolean[0]);
+    private volatile Map<Long, Double> unitsSold = Map.of();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        entries.clear();
+        entriesByProduct.clear();
+        categoryCounts.clear();
+        categoryLabels.clear();
+
+        productRepository.findApprovedNames()
+                .forEach(p -> addProduct(p.getId(), p.getName(), p.getCategory()));
+
+        publish();
+        log.info("Suggestion index built with {} keys", entries.size());
+    }
+
+    // Applied after commit so a rolled back write never shows up in suggestions
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        removeProduct(event.productId());
+        if (event.isVisible()) {
+            addProduct(event.productId(), event.name(), event.category());
+        }
+        publish();
+    }
+
+    @Scheduled(fixedDelayString = "${storez.suggest.popularity-refresh:PT1M}")
+    public void refreshPopularity() {
+        Map<Long, Double> sold = new HashMap<>();
+        productSalesTracker.ranking(ProductRanking.BEST_SELLERS)
+                .forEach(ranked -> sold.put(ranked.productId(), ranked.score()));
+        unitsSold = Map.copyOf(sold);
+    }
+
+    /**
+     * Returns up to limit distinct suggestions whose indexed key starts with the prefix, best ranked first.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        int max = Math.min(Math.max(limit, 1), MAX_LIMIT);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+
+        Snapshot current = snapshot;
+        String[] keys = current.keys();
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = lowerBound(keys, normalized); i < keys.length && candidates.size() < MAX_CANDIDATES; i++) {
+            if (!keys[i].startsWith(normalized)) {
+                break;
+            }
+            candidates.add(i);
+        }
+
+        // Candidates are in key order, and the sort is stable: key order breaks the remaining ties
+        Map<Long, Double> sold = unitsSold;
+        candidates.sort(Comparator
+                .comparing((Integer i) -> !current.leading()[i])
+                .thenComparing(i -> -sold.getOrDefault(current.productIds()[i], 0.0)));
+
+        List<Suggestion> result = new ArrayList<>(max);
+        for (int i : candidates) {
+            if (result.size() == max) {
+                break;
+            }
+            if (!containsLabel(result, current.labels()[i])) {
+                long productId = current.productIds()[i];
+                result.add(productId == NO_PRODUCT
+                        ? new Suggestion(current.labels()[i], "category", null)
+                        : new Suggestion(current.labels()[i], "product", productId));
+            }
+        }
+        return result;
+    }
+
+    private void addProduct(Long id, String name, String category) {
+        List<Entry> added = new ArrayList<>();
+        if (name != null && !name.isBlank()) {
+            for (String key : wordStartKeys(name)) {
+                Entry entry = new Entry(key, name, id);
+                entries.add(entry);
+                added.add(entry);
+            }
+        }
+        if (category != null && !category.isBlank()) {
+            // Remember the category on the product so removal can decrement its count
+            added.add(new Entry(null, category, NO_PRODUCT));
+            String normalized = normalize(category);
+            if (categoryCounts.merge(normalized, 1, Integer::sum) == 1) {
+                categoryLabels.put(normalized, category);
+                wordStartKeys(category).forEach(key -> entries.add(new Entry(key, category, NO_PRODUCT)));
+            }
+        }
+        entriesByProduct.put(id, added);
+    }
+
+    private void removeProduct(Long id) {
+        List<Entry> previous = entriesByProduct.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (Entry entry : previous) {
+            if (entry.key() != null) {
+                entries.remove(entry);
+                continue;
+            }
+            String category = normalize(entry.label());
+            Integer remaining = categoryCounts.merge(category, -1, Integer::sum);
+            if (remaining != null && remaining <= 0) {
+                categoryCounts.remove(category);
+                String label = categoryLabels.remove(category);
+                wordStartKeys(label).forEach(key -> entries.remove(new Entry(key, label, NO_PRODUCT)));
+            }
+        }
+    }
+
+    private void publish() {
+        int size = entries.size();
+        String[] keys = new String[size];
+        String[] labels = new String[size];
+        long[] productIds = new long[size];
+        boolean[] leading = new boolean[size];
+        int i = 0;
+        for (Entry entry : entries) {
+            keys[i] = entry.key();
+            labels[i] = entry.label();
+            productIds[i] = entry.productId();
+            leading[i] = entry.key().equals(normalize(entry.label()));
+            i++;
+        }
+        snapshot = new Snapshot(keys, labels, productIds, leading);
+    }
+
+    /** "Yoga Mat Pro" -> ["yoga mat pro", "mat pro", "pro"] */
+    private static List<String> wordStartKeys(String text) {
+        String normalized = normalize(text);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < normalized.length(); i++) {
+            if (i == 0 || (normalized.charAt(i - 1) == ' ' && normalized.charAt(i) != ' ')) {
+                keys.add(normalized.substring(i));
+            }
+        }
+        return keys;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static int lowerBound(String[] keys, String prefix) {
+        int lo = 0;
+        int hi = keys.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid].compareTo(prefix) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static boolean containsLabel(List<Suggestion> suggestions, String label) {
+        for (Suggestion suggestion : suggestions) {
+            if (suggestion.text().equals(label)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
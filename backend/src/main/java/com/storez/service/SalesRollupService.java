@@ -0,0 +1,129 @@
+package com.storez.service;
+
+import com.storez.event.OrderPlacedEvent;
+import com.storez.event.OrderStatusChangedEvent;
+import com.storez.event.SalesRollupChangedEvent;
+import com.storez.model.RollupDimension;
+import com.storez.model.SalesRollupDirtyDay;
+import com.storez.repository.OrderRepository;
+import com.storez.repository.SalesRollupDirtyDayRepository;
+import com.storez.repository.SalesRollupRepository;
+import com.storez.repository.SalesRollupRepository.SalesBucket;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Keeps the daily sales rollups (sales_rollup_daily) in step with the orders.
+ *
+ * Order events from the outbox only mark the order's day as dirty, in the event's delivery transaction,
+ * so a burst of orders on the same day costs one rebuild. Every refresh rebuilds the dirty days from the
+ * orders with one set-based statement per run of consecutive days: a rebuild is idempotent, which is what
+ * at-least-once event delivery needs, and it also picks up status changes (cancelled sales drop out).
+ * The table is backfilled on startup when empty; {@link #rebuild} recomputes any range on demand.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SalesRollupService {
+
+    /** Chart bucket size. */
+    public enum Granularity {
+        DAY, WEEK, MONTH, YEAR
+    }
+
+    private final SalesRollupRepository salesRollupRepository;
+    private final SalesRollupDirtyDayRepository dirtyDayRepository;
+    private final OrderRepository orderRepository;
+    private final ApplicationEventPublisher publisher;
+
+    @EventListener
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        dirtyDayRepository.markDirty(event.createdAt().toLocalDate());
+    }
+
+    @EventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        orderRepository.findCreatedAtById(event.orderId())
+                .ifPresent(createdAt -> dirtyDayRepository.markDirty(createdAt.toLocalDate()));
+    }
+
+    @Scheduled(fixedDelayString = "${storez.rollup.refresh-interval:PT10S}")
+    @Transactional
+    public void refreshDirtyDays() {
+        List<LocalDate> days = dirtyDayRepository.findAll().stream()
+                .map(SalesRollupDirtyDay::getDay)
+                .sorted()
+                .toList();
+        if (days.isEmpty()) {
+            return;
+        }
+        // Cleared before the rebuild: an event marking one of these days meanwhile waits for this
+        // transaction, then marks it again, so its order is counted by the next refresh at the latest
+        dirtyDayRepository.deleteDays(days);
+
+        int start = 0;
+        for (int i = 1; i <= days.size(); i++) {
+            if (i == days.size() || !days.get(i).equals(days.get(i - 1).plusDays(1))) {
+                rebuildRange(days.get(start), days.get(i - 1));
+                start = i;
+            }
+        }
+        publisher.publishEvent(new SalesRollupChangedEvent(days));
+    }
+
+    /** Recomputes the rollups of every day from "from" to "to" inclusive; returns the number of rows written. */
+    @Transactional
+    public int rebuild(LocalDate from, LocalDate to) {
+        int rows = rebuildRange(from, to);
+        publisher.publishEvent(new SalesRollupChangedEvent(List.of(from, to)));
+        return rows;
+    }
+
+    /** Range of the whole order history, up to today. */
+    @Transactional
+    public int rebuildAll() {
+        LocalDateTime first = orderRepository.findFirstCreatedAt();
+        return first == null ? 0 : rebuild(first.toLocalDate(), LocalDate.now());
+    }
+
+    // Backfill of an empty table (first start with rollups, or after a reset)
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (salesRollupRepository.count() == 0) {
+            int rows = rebuildAll();
+            if (rows > 0) {
+                log.info("Backfilled {} sales rollup rows", rows);
+            }
+        }
+    }
+
+    /**
+     * Chart buckets between from and to (inclusive), for the whole shop (ALL), one supplier or one category.
+     * A null key returns every key of the dimension, largest revenue first within each bucket.
+     */
+    @Transactional(readOnly = true)
+    public List<SalesBucket> buckets(RollupDimension dimension, String key, LocalDate from, LocalDate to,
+                                     Granularity granularity) {
+        return salesRollupRepository.findBuckets(dimension.name(), dimension == RollupDimension.ALL ? "" : key,
+                from, to, granularity.name().toLowerCase(Locale.ROOT));
+    }
+
+    private int rebuildRange(LocalDate from, LocalDate to) {
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+        salesRollupRepository.deleteDays(start, end);
+        return salesRollupRepository.insertDays(start, end);
+    }
+}
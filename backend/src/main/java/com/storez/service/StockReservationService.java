@@ -0,0 +1,44 @@
+package com.storez.service;
+
+import com.storez.event.StockChangedEvent;
+import com.storez.exception.InsufficientStockException;
+import com.storez.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Takes stock for an order with one conditional UPDATE per product (stock = stock - n WHERE stock >= n).
+ *
+ * The check and the decrement are a single statement, so concurrent checkouts of the same product only
+ * wait for each other's row lock and never read a stale stock. Products are reserved in ascending id
+ * order: two orders sharing products lock them in the same order and cannot deadlock. A shortfall throws
+ * {@link InsufficientStockException}, which rolls back the caller's transaction and with it every
+ * reservation already made for the order.
+ */
+@Service
+@RequiredArgsConstructor
+public class StockReservationService {
+
+    private final ProductRepository productRepository;
+    private final ApplicationEventPublisher publisher;
+
+    /** Reserves quantity per product id. Must join the transaction that creates the order. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reserve(Map<Long, Integer> quantities) {
+        Map<Long, Integer> byId = new TreeMap<>(quantities);
+        byId.forEach((productId, quantity) -> {
+            if (productRepository.reserveStock(productId, quantity) == 0) {
+                throw new InsufficientStockException(productId);
+            }
+        });
+        // Cached snapshots and catalog responses show the stock: refresh them once the order commits
+        publisher.publishEvent(new StockChangedEvent(new ArrayList<>(byId.keySet())));
+    }
+}
@@ -0,0 +1,8 @@
+-- Relay threads poll the pending outbox rows only; processed rows are kept a few days then purged.
+-- The partial index stays as small as the backlog.
+
+CREATE INDEX IF NOT EXISTS idx_order_events_pending ON order_events (available_at, id) WHERE processed_at IS NULL AND NOT failed;
+
+-- Hibernate lists the enum values in a check constraint when it creates the table, and ddl-auto update
+-- never widens it: new event types would be rejected. The type is validated by the enum mapping instead.
+ALTER TABLE order_events DROP CONSTRAINT IF EXISTS order_events_type_check;
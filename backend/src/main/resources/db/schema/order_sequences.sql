@@ -0,0 +1,10 @@
+-- Order ids moved from IDENTITY columns to pooled sequences (allocationSize 50) so checkout inserts
+-- can be batched. Hibernate creates the sequences starting at 1; move them past the ids already
+-- handed out by the identity columns. Never moves a sequence backwards, so it is safe on every start.
+-- The pooled optimizer treats the value read as the top of a block of 50, hence the + 50.
+
+SELECT setval('orders_seq', GREATEST((SELECT last_value FROM orders_seq), (SELECT COALESCE(MAX(id), 0) FROM orders) + 50));
+
+SELECT setval('order_item_seq', GREATEST((SELECT last_value FROM order_item_seq), (SELECT COALESCE(MAX(id), 0) FROM order_item) + 50));
+
+SELECT setval('supplier_order_seq', GREATEST((SELECT last_value FROM supplier_order_seq), (SELECT COALESCE(MAX(id), 0) FROM supplier_order) + 50));
@@ -0,0 +1,21 @@
+-- Backfill of the prices stored at checkout (order_item.unit_price / line_total, orders.total)
+-- for orders placed before they existed. The product's current price is the best value left for those.
+-- Idempotent: only rows still NULL are touched. Lines whose product was deleted are valued at 0,
+-- as they were when totals were computed on the fly.
+
+UPDATE order_item oi
+SET unit_price = p.price,
+    line_total = p.price * oi.quantity
+FROM product p
+WHERE oi.unit_price IS NULL
+  AND p.id = oi.product_id;
+
+UPDATE order_item
+SET unit_price = 0,
+    line_total = 0
+WHERE unit_price IS NULL
+  AND product_id IS NULL;
+
+UPDATE orders o
+SET total = (SELECT COALESCE(SUM(oi.line_total), 0) FROM order_item oi WHERE oi.order_id = o.id)
+WHERE o.total IS NULL;
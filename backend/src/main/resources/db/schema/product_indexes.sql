@@ -0,0 +1,5 @@
+-- Indexes that cannot be expressed with @Index on the entity.
+-- Runs after Hibernate has created/updated the tables (spring.jpa.defer-datasource-initialization).
+
+-- Case-insensitive category filter on the public catalog
+CREATE INDEX IF NOT EXISTS idx_product_status_lower_category ON product (status, lower(category));
@@ -0,0 +1,17 @@
+-- Full-text and fuzzy product search.
+-- search_vector is a generated column, so PostgreSQL recomputes it on every INSERT/UPDATE of
+-- name, category or description (supplier add/update, admin approve/reject) without any app code.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE product ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(name, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(category, '')), 'B') ||
+        setweight(to_tsvector('english', coalesce(description, '')), 'C')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_product_search_vector ON product USING GIN (search_vector);
+
+-- Typo tolerance on names (word_similarity operator <%), also serves LIKE '%...%' filters
+CREATE INDEX IF NOT EXISTS idx_product_name_trgm ON product USING GIN (lower(name) gin_trgm_ops);
@@ -0,0 +1,21 @@
+-- Backfill of supplier_order for orders placed before checkout created them.
+-- Idempotent: only order items not yet attached to a supplier order are considered, so once every
+-- existing order is split both statements match nothing. Parts inherit the order's status.
+
+INSERT INTO supplier_order (order_id, supplier_id, created_at, status, subtotal)
+SELECT oi.order_id, p.supplier_id, o.created_at, o.status, SUM(oi.line_total)
+FROM order_item oi
+    JOIN orders o ON o.id = oi.order_id
+    JOIN product p ON p.id = oi.product_id
+WHERE oi.supplier_order_id IS NULL
+  AND p.supplier_id IS NOT NULL
+GROUP BY oi.order_id, p.supplier_id, o.created_at, o.status
+ON CONFLICT (order_id, supplier_id) DO NOTHING;
+
+UPDATE order_item oi
+SET supplier_order_id = so.id
+FROM product p, supplier_order so
+WHERE oi.supplier_order_id IS NULL
+  AND p.id = oi.product_id
+  AND so.order_id = oi.order_id
+  AND so.supplier_id = p.supplier_id;
@@ -0,0 +1,37 @@
+package com.storez;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the SQL statements Hibernate prepares on the current thread (registered as the statement
+ * inspector of the test profile). Background threads (outbox relay, refreshes) are not counted, so a
+ * test measures only the work it triggers itself. A JDBC batch is one statement.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+    /** Starts recording on the current thread, forgetting what was recorded before. */
+    public static void start() {
+        STATEMENTS.set(new ArrayList<>());
+    }
+
+    /** Stops recording and returns the statements prepared since {@link #start()}. */
+    public static List<String> stop() {
+        List<String> statements = STATEMENTS.get();
+        STATEMENTS.remove();
+        return statements != null ? statements : List.of();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = STATEMENTS.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+}
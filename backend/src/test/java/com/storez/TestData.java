@@ -0,0 +1,89 @@
+package com.storez;
+
+import com.storez.model.Product;
+import com.storez.model.Role;
+import com.storez.model.Supplier;
+import com.storez.model.SupplierStatus;
+import com.storez.model.User;
+import com.storez.repository.ProductRepository;
+import com.storez.repository.SupplierRepository;
+import com.storez.repository.UserRepository;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Accounts and products for {@link PostgresTest} tests. Every name and email carries a random tag, so
+ * tests only see their own rows in the shared test database and nothing needs to be cleaned up.
+ */
+@Component
+public class TestData {
+
+    public static final String PASSWORD = "pw";
+
+    private final UserRepository userRepository;
+    private final SupplierRepository supplierRepository;
+    private final ProductRepository productRepository;
+    private final PasswordEncoder passwordEncoder;
+
+    public TestData(UserRepository userRepository, SupplierRepository supplierRepository,
+                    ProductRepository productRepository, PasswordEncoder passwordEncoder) {
+        this.userRepository = userRepository;
+        this.supplierRepository = supplierRepository;
+        this.productRepository = productRepository;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    public static String tag(String prefix) {
+        return prefix + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    public User user(Role role) {
+        String tag = tag(role.name().toLowerCase());
+        return userRepository.save(User.builder()
+                .name(tag)
+                .email(tag + "@test.storez")
+                .passwordHash(passwordEncoder.encode(PASSWORD))
+                .role(role)
+                .build());
+    }
+
+    public Supplier supplier() {
+        String tag = tag("supplier");
+        return supplierRepository.save(Supplier.builder()
+                .email(tag + "@test.storez")
+                .companyName(tag)
+                .passwordHash(passwordEncoder.encode(PASSWORD))
+                .status(SupplierStatus.APPROVED)
+                .approved(true)
+                .build());
+    }
+
+    public Product product(Supplier supplier, String category, String name, double price, int stock) {
+        return productRepository.save(Product.builder()
+                .name(name)
+                .description("Test product " + name)
+                .price(price)
+                .stock(stock)
+                .category(category)
+                .status("APPROVED")
+                .supplier(supplier)
+                .build());
+    }
+
+    /** Signs in through /api/auth/login; the returned session authenticates the following requests. */
+    public static MockHttpSession login(MockMvc mockMvc, String email) throws Exception {
+        return (MockHttpSession) mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getRequest().getSession(false);
+    }
+}
@@ -0,0 +1,135 @@
+package com.storez.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.storez.PostgresTest;
+import com.storez.model.Product;
+import com.storez.model.Supplier;
+import com.storez.model.SupplierStatus;
+import com.storez.repository.ProductRepository;
+import com.storez.repository.SupplierRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@PostgresTest
+class ProductCursorPagingTest {
+
+    // Parameters in the query string: the catalog response cache is keyed on it
+    private static final String PAGE_URL = "/api/products?category={category}&sort={sort}&after={after}&size=2";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SupplierRepository supplierRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final String category = "paging-" + UUID.randomUUID();
+    private Supplier supplier;
+    private final List<Product> products = new ArrayList<>();
+
+    @BeforeEach
+    void createProducts() {
+        supplier = supplierRepository.save(Supplier.builder()
+                .email(category + "@test.storez")
+                .companyName("Paging test")
+                .passwordHash("-")
+                .status(SupplierStatus.APPROVED)
+                .approved(true)
+                .build());
+        // Duplicate names and null names: the id breaks ties, null names come last
+        for (String name : new String[]{"b", null, "a", "c", null, "b", "a", null}) {
+            products.add(productRepository.save(Product.builder()
+                    .name(name)
+                    .description("Paging test product")
+                    .price(10)
+                    .stock(1)
+                    .category(category)
+                    .status("APPROVED")
+                    .supplier(supplier)
+                    .build()));
+        }
+    }
+
+    @AfterEach
+    void deleteProducts() {
+        productRepository.deleteAll(products);
+        supplierRepository.delete(supplier);
+    }
+
+    @Test
+    void ascendingPagesVisitEveryProductOnceWithNullNamesLast() throws Exception {
+        List<JsonNode> rows = readAll("name");
+
+        assertThat(rows).extracting(row -> row.get("id").asLong())
+                .doesNotHaveDuplicates()
+                .hasSize(products.size());
+        assertThat(rows).extracting(ProductCursorPagingTest::name)
+                .containsExactly("a", "a", "b", "b", "c", null, null, null);
+    }
+
+    @Test
+    void descendingPagesAlsoKeepNullNamesLast() throws Exception {
+        List<JsonNode> rows = readAll("name,desc");
+
+        assertThat(rows).extracting(row -> row.get("id").asLong())
+                .doesNotHaveDuplicates()
+                .hasSize(products.size());
+        assertThat(rows).extracting(ProductCursorPagingTest::name)
+                .containsExactly("c", "b", "b", "a", "a", null, null, null);
+    }
+
+    @Test
+    void cursorOfAnotherSortIsRejected() throws Exception {
+        JsonNode first = page("name", "");
+        String cursor = first.get("nextCursor").asText();
+
+        mockMvc.perform(get(PAGE_URL, category, "name,desc", cursor))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get(PAGE_URL, category, "price", cursor))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<JsonNode> readAll(String sort) throws Exception {
+        List<JsonNode> rows = new ArrayList<>();
+        String after = "";
+        for (int pages = 0; pages < 10; pages++) {
+            JsonNode page = page(sort, after);
+            page.get("products").forEach(rows::add);
+            if (!page.get("hasNext").asBoolean()) {
+                return rows;
+            }
+            after = page.get("nextCursor").asText();
+        }
+        throw new AssertionError("Cursor pagination did not terminate");
+    }
+
+    // Null fields are left out of the response
+    private static String name(JsonNode row) {
+        JsonNode name = row.get("name");
+        return name == null || name.isNull() ? null : name.asText();
+    }
+
+    private JsonNode page(String sort, String after) throws Exception {
+        String body = mockMvc.perform(get(PAGE_URL, category, sort, after))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+}
@@ -0,0 +1,218 @@
+package com.storez.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.storez.PostgresTest;
+import com.storez.TestData;
+import com.storez.dto.FieldSet;
+import com.storez.dto.OrderView;
+import com.storez.model.Order;
+import com.storez.model.Product;
+import com.storez.model.Role;
+import com.storez.model.Supplier;
+import com.storez.model.User;
+import com.storez.repository.OrderItemRepository;
+import com.storez.repository.OrderRepository;
+import com.storez.repository.OrderSpecifications;
+import com.storez.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Bytes allocated per request by the listing endpoints that return projected record DTOs.
+ *
+ * MockMvc runs the whole request (security, controller, queries, JSON) on the test thread, so the
+ * thread's allocation counter measures one request. Each endpoint is warmed up, then averaged over
+ * {@link #MEASURED} requests and checked against a budget per endpoint, which per-row maps or hydrated
+ * entities would exceed. The admin order list is also compared with the map-building path it replaced,
+ * rebuilt here: the same page of orders read as entities and copied into nested HashMaps.
+ */
+@PostgresTest
+class ResponseAllocationTest {
+
+    private static final int WARMUP = 30;
+    private static final int MEASURED = 50;
+    private static final int PRODUCTS = 60;
+    private static final int ORDERS = 30;
+
+    // About twice what the endpoints allocated when this test was written (276, 250, 380 and 342 KB):
+    // loose enough for JVM noise, tight enough to catch entity hydration or per-row maps coming back
+    private static final long CATALOG_BUDGET = 600 * 1024;
+    private static final long ADMIN_PRODUCTS_BUDGET = 512 * 1024;
+    private static final long ADMIN_ORDERS_BUDGET = 768 * 1024;
+    private static final long SUPPLIER_ORDERS_BUDGET = 768 * 1024;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private String category;
+    private MockHttpSession admin;
+    private MockHttpSession supplierSession;
+    private Long customerId;
+
+    @BeforeEach
+    void createCatalogAndOrders() throws Exception {
+        category = TestData.tag("alloc");
+        Supplier supplier = testData.supplier();
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            products.add(testData.product(supplier, category, "Allocation product " + i, 10 + i, 1000));
+        }
+        User customer = testData.user(Role.USER);
+        customerId = customer.getId();
+        for (int i = 0; i < ORDERS; i++) {
+            orderService.placeOrder(customer, List.of(
+                    new OrderService.Line(products.get(i).getId(), 1),
+                    new OrderService.Line(products.get(i + 1).getId(), 2),
+                    new OrderService.Line(products.get(i + 2).getId(), 3)));
+        }
+        admin = TestData.login(mockMvc, testData.user(Role.ADMIN).getEmail());
+        supplierSession = TestData.login(mockMvc, supplier.getEmail());
+    }
+
+    @Test
+    void listingsStayWithinTheirAllocationBudget() throws Exception {
+        // A different query string per request misses the catalog response cache
+        long catalog = bytesPerRequest(i -> "/api/products?size=50&category=" + category + "&page=1&miss=" + i, null);
+        long adminProducts = bytesPerRequest(i -> "/api/admin/products?size=50", admin);
+        // Orders of this test's customer only: the test database keeps the orders of earlier runs
+        long adminOrders = bytesPerRequest(i -> "/api/admin/orders?page=1&size=50&userId=" + customerId, admin);
+        long supplierOrders = bytesPerRequest(i -> "/api/supplier/orders", supplierSession);
+
+        assertThat(catalog).isLessThan(CATALOG_BUDGET);
+        assertThat(adminProducts).isLessThan(ADMIN_PRODUCTS_BUDGET);
+        assertThat(adminOrders).isLessThan(ADMIN_ORDERS_BUDGET);
+        assertThat(supplierOrders).isLessThan(SUPPLIER_ORDERS_BUDGET);
+    }
+
+    @Test
+    void projectedOrdersAllocateLessThanPerRowMaps() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        var spec = OrderSpecifications.placedBy(customerId);
+        Pageable page = PageRequest.of(0, 50, Sort.by(Sort.Direction.DESC, "createdAt", "id"));
+
+        long projected = bytesPerCall(i -> transaction.execute(status -> {
+            List<OrderView> headers = orderRepository.findViews(spec, page, FieldSet.all()).getContent();
+            List<Long> ids = headers.stream().map(OrderView::id).toList();
+            return json(OrderView.assemble(headers, orderItemRepository.findLinesByOrderIdIn(ids), FieldSet.all()));
+        }));
+        long maps = bytesPerCall(i -> transaction.execute(status ->
+                json(orderRepository.findAll(spec, page).map(ResponseAllocationTest::orderMap).getContent())));
+
+        assertThat(projected).as("projected %d bytes, maps %d bytes", projected, maps).isLessThan(maps);
+    }
+
+    private interface Url {
+        String of(int request);
+    }
+
+    private interface Call {
+        void run(int request) throws Exception;
+    }
+
+    private long bytesPerRequest(Url url, MockHttpSession session) throws Exception {
+        return bytesPerCall(i -> perform(url.of(i), session));
+    }
+
+    // Warm-up calls get negative numbers, so they never share a number (or a cache key) with a measured one
+    private long bytesPerCall(Call call) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            call.run(-i - 1);
+        }
+        long total = 0;
+        for (int i = 0; i < MEASURED; i++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            call.run(i);
+            total += threads.getCurrentThreadAllocatedBytes() - before;
+        }
+        return total / MEASURED;
+    }
+
+    private byte[] json(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // The admin order DTO as it was built before the record projections
+    private static Map<String, Object> orderMap(Order order) {
+        Map<String, Object> dto = new HashMap<>();
+        dto.put("id", order.getId());
+        dto.put("createdAt", order.getCreatedAt());
+        dto.put("status", order.getStatus().name());
+        if (order.getUser() != null) {
+            Map<String, Object> userInfo = new HashMap<>();
+            userInfo.put("id", order.getUser().getId());
+            userInfo.put("name", order.getUser().getName());
+            userInfo.put("email", order.getUser().getEmail());
+            dto.put("user", userInfo);
+        }
+        dto.put("total", order.getTotal());
+        List<Map<String, Object>> items = order.getItems().stream().map(item -> {
+            Map<String, Object> itemDto = new HashMap<>();
+            itemDto.put("id", item.getId());
+            itemDto.put("quantity", item.getQuantity());
+            itemDto.put("unitPrice", item.getUnitPrice());
+            itemDto.put("lineTotal", item.getLineTotal());
+            if (item.getProduct() != null) {
+                Map<String, Object> productInfo = new HashMap<>();
+                productInfo.put("id", item.getProduct().getId());
+                productInfo.put("name", item.getProduct().getName());
+                productInfo.put("image", item.getProduct().getImage());
+                itemDto.put("product", productInfo);
+            }
+            return itemDto;
+        }).toList();
+        dto.put("items", items);
+        return dto;
+    }
+
+    private void perform(String url, MockHttpSession session) throws Exception {
+        var request = get(url);
+        if (session != null) {
+            request.session(session);
+        }
+        mockMvc.perform(request).andExpect(status().isOk());
+    }
+}
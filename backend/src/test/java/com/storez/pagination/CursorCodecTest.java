@@ -0,0 +1,87 @@
+package com.storez.pagination;
+
+import com.storez.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorCodecTest {
+
+    private record Row(Long id, String name, Double price, LocalDateTime createdAt) {
+    }
+
+    private static final KeysetSort<Row> BY_NAME =
+            new KeysetSort<>("name", Sort.Direction.ASC, String.class, Row::name, Row::id);
+    private static final KeysetSort<Row> BY_NAME_DESC =
+            new KeysetSort<>("name", Sort.Direction.DESC, String.class, Row::name, Row::id);
+    private static final KeysetSort<Row> BY_PRICE =
+            new KeysetSort<>("price", Sort.Direction.ASC, Double.class, Row::price, Row::id);
+    private static final KeysetSort<Row> BY_CREATED =
+            new KeysetSort<>("createdAt", Sort.Direction.DESC, LocalDateTime.class, Row::createdAt, Row::id);
+
+    @Test
+    void roundTripsEachKeyType() {
+        assertThat(CursorCodec.decode(BY_PRICE, CursorCodec.encode(BY_PRICE, 7L, 12.5)))
+                .isEqualTo(new CursorCodec.Position(7L, 12.5));
+        LocalDateTime at = LocalDateTime.of(2026, 10, 18, 9, 30, 15, 123_000_000);
+        assertThat(CursorCodec.decode(BY_CREATED, CursorCodec.encode(BY_CREATED, 3L, at)))
+                .isEqualTo(new CursorCodec.Position(3L, at));
+        KeysetSort<Row> byId = KeysetSort.byId(Sort.Direction.ASC, Row::id);
+        assertThat(CursorCodec.decode(byId, CursorCodec.encode(byId, 42L, 42L)))
+                .isEqualTo(new CursorCodec.Position(42L, 42L));
+    }
+
+    @Test
+    void keepsStringKeysContainingSeparatorsAndMarkers() {
+        for (String name : new String[]{"a|b|c", "-", "+x", "", "null"}) {
+            CursorCodec.Position position = CursorCodec.decode(BY_NAME, CursorCodec.encode(BY_NAME, 1L, name));
+            assertThat(position.key()).isEqualTo(name);
+        }
+    }
+
+    @Test
+    void nullKeyIsDistinctFromTheStringNull() {
+        CursorCodec.Position nullKey = CursorCodec.decode(BY_NAME, CursorCodec.encode(BY_NAME, 5L, null));
+        assertThat(nullKey).isEqualTo(new CursorCodec.Position(5L, null));
+
+        CursorCodec.Position nullPrice = CursorCodec.decode(BY_PRICE, CursorCodec.encode(BY_PRICE, 5L, null));
+        assertThat(nullPrice.key()).isNull();
+    }
+
+    @Test
+    void rejectsCursorOfAnotherPropertyOrDirection() {
+        String token = CursorCodec.encode(BY_NAME, 1L, "apple");
+        assertThatThrownBy(() -> CursorCodec.decode(BY_PRICE, token))
+                .isInstanceOf(InvalidCursorException.class)
+                .hasMessageContaining("sort order");
+        assertThatThrownBy(() -> CursorCodec.decode(BY_NAME_DESC, token))
+                .isInstanceOf(InvalidCursorException.class)
+                .hasMessageContaining("sort order");
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertThatThrownBy(() -> CursorCodec.decode(BY_NAME, "%%%")).isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> CursorCodec.decode(BY_NAME, encodeRaw("1|name|ASC")))
+                .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> CursorCodec.decode(BY_NAME, encodeRaw("x|name|ASC|+a")))
+                .isInstanceOf(InvalidCursorException.class);
+        // The old format, without direction and marker
+        assertThatThrownBy(() -> CursorCodec.decode(BY_PRICE, encodeRaw("1|price|null")))
+                .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> CursorCodec.decode(BY_PRICE, encodeRaw("1|price|ASC|null")))
+                .isInstanceOf(InvalidCursorException.class);
+        assertThatThrownBy(() -> CursorCodec.decode(BY_PRICE, encodeRaw("1|price|ASC|+abc")))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    private static String encodeRaw(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,85 @@
+package com.storez.pagination;
+
+import com.storez.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetPagingTest {
+
+    private record Row(Long id, String name) {
+    }
+
+    private static final KeysetSort<Row> BY_NAME =
+            new KeysetSort<>("name", Sort.Direction.ASC, String.class, Row::name, Row::id);
+
+    private final List<Integer> requestedLimits = new ArrayList<>();
+    private final List<Sort> requestedSorts = new ArrayList<>();
+
+    private KeysetPaging.RowLoader<Object, Row> loaderOf(List<Row> rows) {
+        return (spec, sort, limit) -> {
+            requestedLimits.add(limit);
+            requestedSorts.add(sort);
+            return rows.subList(0, Math.min(limit, rows.size()));
+        };
+    }
+
+    private static List<Row> rows(int count) {
+        return LongStream.rangeClosed(1, count).mapToObj(id -> new Row(id, "name-" + id)).toList();
+    }
+
+    @Test
+    void fetchesOneExtraRowAndEncodesTheLastReturnedRow() {
+        CursorPage<Row> page = KeysetPaging.fetch(loaderOf(rows(5)), null, BY_NAME, null, 3);
+
+        assertThat(page.items()).extracting(Row::id).containsExactly(1L, 2L, 3L);
+        assertThat(requestedLimits).containsExactly(4);
+        assertThat(page.hasNext()).isTrue();
+        assertThat(CursorCodec.decode(BY_NAME, page.nextCursor()))
+                .isEqualTo(new CursorCodec.Position(3L, "name-3"));
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        CursorPage<Row> exact = KeysetPaging.fetch(loaderOf(rows(3)), null, BY_NAME, "", 3);
+        assertThat(exact.items()).hasSize(3);
+        assertThat(exact.nextCursor()).isNull();
+
+        CursorPage<Row> empty = KeysetPaging.fetch(loaderOf(List.of()), null, BY_NAME, null, 3);
+        assertThat(empty.items()).isEmpty();
+        assertThat(empty.hasNext()).isFalse();
+    }
+
+    @Test
+    void lastRowWithNullKeyGivesANullKeyCursor() {
+        List<Row> rows = List.of(new Row(1L, "b"), new Row(2L, null), new Row(3L, null));
+        CursorPage<Row> page = KeysetPaging.fetch(loaderOf(rows), null, BY_NAME, null, 2);
+
+        assertThat(CursorCodec.decode(BY_NAME, page.nextCursor())).isEqualTo(new CursorCodec.Position(2L, null));
+    }
+
+    @Test
+    void sortsNullKeysLastThenById() {
+        KeysetPaging.fetch(loaderOf(rows(1)), null, BY_NAME, null, 3);
+
+        Sort sort = requestedSorts.get(0);
+        assertThat(sort.getOrderFor("name").getNullHandling()).isEqualTo(Sort.NullHandling.NULLS_LAST);
+        assertThat(sort.getOrderFor("id").getDirection()).isEqualTo(Sort.Direction.ASC);
+    }
+
+    @Test
+    void rejectsACursorOfAnotherOrderingBeforeQuerying() {
+        KeysetSort<Row> byNameDesc = new KeysetSort<>("name", Sort.Direction.DESC, String.class, Row::name, Row::id);
+        String cursor = CursorCodec.encode(BY_NAME, 3L, "name-3");
+
+        assertThatThrownBy(() -> KeysetPaging.fetch(loaderOf(rows(5)), null, byNameDesc, cursor, 3))
+                .isInstanceOf(InvalidCursorException.class);
+        assertThat(requestedLimits).isEmpty();
+    }
+}
@@ -0,0 +1,70 @@
+package com.storez.service;
+
+import com.storez.PostgresTest;
+import com.storez.SqlStatementCounter;
+import com.storez.TestData;
+import com.storez.model.OrderStatus;
+import com.storez.model.Product;
+import com.storez.model.Role;
+import com.storez.model.Supplier;
+import com.storez.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Queries of one admin dashboard and analytics refresh, counted on the calling thread.
+ *
+ * Every figure is a COUNT, a GROUP BY or one revenue aggregation computed by the database, so the number
+ * of statements is the same however many users, suppliers, products and orders there are.
+ */
+@PostgresTest
+class AnalyticsSnapshotStatementCountTest {
+
+    // 5 counts and the revenue summary for the dashboard, 3 GROUP BY queries for the charts
+    private static final int STATEMENTS = 9;
+
+    @Autowired
+    private AnalyticsSnapshotService analyticsSnapshotService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void queryCountDoesNotGrowWithTheData() {
+        List<String> before = refresh();
+
+        String category = TestData.tag("analytics-count");
+        for (int s = 0; s < 3; s++) {
+            Supplier supplier = testData.supplier();
+            User customer = testData.user(Role.USER);
+            for (int p = 0; p < 10; p++) {
+                Product product = testData.product(supplier, category, "Analytics product " + p, 5, 100);
+                Long orderId = orderService.placeOrder(customer, List.of(new OrderService.Line(product.getId(), 1))).getId();
+                if (p % 2 == 0) {
+                    orderService.updateStatus(orderId, OrderStatus.SHIPPED);
+                }
+            }
+        }
+
+        List<String> after = refresh();
+
+        assertThat(before).as(String.join("\n", before)).hasSize(STATEMENTS);
+        assertThat(after).as(String.join("\n", after)).hasSize(STATEMENTS);
+    }
+
+    private List<String> refresh() {
+        SqlStatementCounter.start();
+        try {
+            analyticsSnapshotService.compute();
+        } finally {
+            return SqlStatementCounter.stop();
+        }
+    }
+}
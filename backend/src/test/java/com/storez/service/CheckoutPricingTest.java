@@ -0,0 +1,72 @@
+package com.storez.service;
+
+import com.storez.PostgresTest;
+import com.storez.TestData;
+import com.storez.dto.ProductSnapshot;
+import com.storez.exception.ResourceNotFoundException;
+import com.storez.model.Order;
+import com.storez.model.Role;
+import com.storez.model.Supplier;
+import com.storez.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checkout charges the price committed in the database, whatever the product cache holds.
+ * The rows are changed with plain JDBC, so no change event evicts the cached snapshot.
+ */
+@PostgresTest
+class CheckoutPricingTest {
+
+    private static final String CATEGORY = "checkout-pricing";
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductCache productCache;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Supplier supplier;
+    private User customer;
+
+    @BeforeEach
+    void createAccounts() {
+        supplier = testData.supplier();
+        customer = testData.user(Role.USER);
+    }
+
+    @Test
+    void staleCachedPriceIsNotCharged() {
+        Long productId = testData.product(supplier, CATEGORY, "Repriced product", 10, 100).getId();
+        assertThat(productCache.find(productId).map(ProductSnapshot::price)).contains(10.0);
+        jdbcTemplate.update("UPDATE product SET price = 25 WHERE id = ?", productId);
+
+        Order order = orderService.placeOrder(customer, List.of(new OrderService.Line(productId, 2)));
+
+        assertThat(order.getItems().get(0).getUnitPrice()).isEqualTo(25.0);
+        assertThat(order.getTotal()).isEqualTo(50.0);
+    }
+
+    @Test
+    void productNoLongerApprovedIsRefused() {
+        Long productId = testData.product(supplier, CATEGORY, "Withdrawn product", 10, 100).getId();
+        productCache.find(productId);
+        jdbcTemplate.update("UPDATE product SET status = 'REJECTED' WHERE id = ?", productId);
+
+        assertThatThrownBy(() -> orderService.placeOrder(customer, List.of(new OrderService.Line(productId, 1))))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+}
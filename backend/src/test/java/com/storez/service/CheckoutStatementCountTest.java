@@ -0,0 +1,111 @@
+package com.storez.service;
+
+import com.storez.PostgresTest;
+import com.storez.SqlStatementCounter;
+import com.storez.TestData;
+import com.storez.model.Role;
+import com.storez.model.Supplier;
+import com.storez.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Round trips of one checkout, counted as the SQL statements prepared on the calling thread.
+ *
+ * Products are resolved with one IN query, ids come from pooled sequences and the order, supplier orders
+ * and items are inserted as one JDBC batch per table; only the stock reservation (one conditional UPDATE
+ * per product, which is what makes it safe under concurrency) grows with the number of lines.
+ */
+@PostgresTest
+class CheckoutStatementCountTest {
+
+    private static final String CATEGORY = "checkout-count";
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TestData testData;
+
+    private User customer;
+    private List<Long> supplierAProducts;
+    private List<Long> supplierBProducts;
+
+    @BeforeEach
+    void createProducts() {
+        customer = testData.user(Role.USER);
+        supplierAProducts = products(testData.supplier(), 20);
+        supplierBProducts = products(testData.supplier(), 20);
+    }
+
+    @Test
+    void thirtyLineOrderFromTwoSuppliers() {
+        List<String> statements = checkout(lines(15, 15));
+
+        assertThat(count(statements, "update product")).isEqualTo(30);
+        assertThat(count(statements, "from product")).isEqualTo(1);
+        // One batch per table, whatever the number of rows
+        assertThat(count(statements, "insert into orders ")).isEqualTo(1);
+        assertThat(count(statements, "insert into supplier_order ")).isEqualTo(1);
+        assertThat(count(statements, "insert into order_item ")).isEqualTo(1);
+        assertThat(count(statements, "insert into order_events ")).isEqualTo(1);
+        // At most one fetch per pooled sequence (order, supplier order, item, outbox event)
+        assertThat(count(statements, "nextval(")).isLessThanOrEqualTo(4);
+        assertThat(statements).as(describe(statements)).hasSizeLessThanOrEqualTo(30 + 1 + 3 + 1 + 4);
+    }
+
+    @Test
+    void onlyTheStockReservationGrowsWithTheLines() {
+        List<String> ten = checkout(lines(5, 5));
+        List<String> thirty = checkout(lines(15, 15));
+
+        // Sequence fetches depend on what the pools have left, so they are not compared
+        long tenWithoutSequences = ten.size() - count(ten, "nextval(");
+        long thirtyWithoutSequences = thirty.size() - count(thirty, "nextval(");
+        assertThat(thirtyWithoutSequences - tenWithoutSequences).as(describe(thirty)).isEqualTo(20);
+    }
+
+    private List<String> checkout(List<OrderService.Line> lines) {
+        SqlStatementCounter.start();
+        try {
+            orderService.placeOrder(customer, lines);
+        } finally {
+            return SqlStatementCounter.stop();
+        }
+    }
+
+    // Lines on products not ordered yet
+    private List<OrderService.Line> lines(int fromA, int fromB) {
+        List<OrderService.Line> lines = new ArrayList<>();
+        for (int i = 0; i < fromA; i++) {
+            lines.add(new OrderService.Line(supplierAProducts.remove(0), 1));
+        }
+        for (int i = 0; i < fromB; i++) {
+            lines.add(new OrderService.Line(supplierBProducts.remove(0), 1));
+        }
+        return lines;
+    }
+
+    private List<Long> products(Supplier supplier, int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(testData.product(supplier, CATEGORY, "Checkout product " + i, 5, 100).getId());
+        }
+        return ids;
+    }
+
+    private static long count(List<String> statements, String fragment) {
+        return statements.stream().filter(sql -> sql.toLowerCase(Locale.ROOT).contains(fragment)).count();
+    }
+
+    private static String describe(List<String> statements) {
+        return String.join("\n", statements);
+    }
+}
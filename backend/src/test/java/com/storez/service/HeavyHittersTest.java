@@ -0,0 +1,105 @@
+package com.storez.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HeavyHittersTest {
+
+    @Test
+    void countsAreExactUnderCapacity() {
+        HeavyHitters summary = new HeavyHitters(4);
+        summary.add(1, 3);
+        summary.add(2, 5);
+        summary.add(1, 4);
+        summary.add(3, 1);
+
+        assertThat(summary.counters()).containsExactly(
+                new HeavyHitters.Counter(1, 7, 0),
+                new HeavyHitters.Counter(2, 5, 0),
+                new HeavyHitters.Counter(3, 1, 0));
+        assertThat(summary.size()).isEqualTo(3);
+    }
+
+    @Test
+    void evictedKeyHandsItsCountOverAsError() {
+        HeavyHitters summary = new HeavyHitters(2);
+        summary.add(1, 10);
+        summary.add(2, 3);
+        summary.add(3, 1);
+
+        // Key 2 had the smallest count: key 3 takes its place and its 3 units as error
+        assertThat(summary.counters()).containsExactly(
+                new HeavyHitters.Counter(1, 10, 0),
+                new HeavyHitters.Counter(3, 4, 3));
+    }
+
+    @Test
+    void estimatesStayWithinTheirErrorAfterEvictions() {
+        int capacity = 20;
+        HeavyHitters summary = new HeavyHitters(capacity);
+        Map<Long, Double> exact = new HashMap<>();
+        Random random = new Random(42);
+        double total = 0;
+        for (int i = 0; i < 20_000; i++) {
+            // Skewed stream: a few heavy keys over a long tail of 500 keys
+            long key = random.nextInt(4) == 0 ? random.nextInt(5) : random.nextInt(500);
+            double weight = 1 + random.nextInt(3);
+            summary.add(key, weight);
+            exact.merge(key, weight, Double::sum);
+            total += weight;
+        }
+
+        List<HeavyHitters.Counter> counters = summary.counters();
+        assertThat(counters).hasSize(capacity);
+        for (HeavyHitters.Counter counter : counters) {
+            double trueCount = exact.get(counter.key());
+            assertThat(counter.count()).isGreaterThanOrEqualTo(trueCount);
+            assertThat(counter.count() - counter.error()).isLessThanOrEqualTo(trueCount);
+            assertThat(counter.error()).isLessThanOrEqualTo(total / capacity);
+        }
+        // Every key heavier than total / capacity is tracked
+        double threshold = total / capacity;
+        exact.forEach((key, count) -> {
+            if (count > threshold) {
+                assertThat(counters).anyMatch(counter -> counter.key() == key);
+            }
+        });
+    }
+
+    @Test
+    void scaleKeepsTheOrderAndTheRelativeCounts() {
+        HeavyHitters summary = new HeavyHitters(2);
+        summary.add(1, 8);
+        summary.add(2, 2);
+        summary.add(3, 4);
+
+        summary.scale(0.25);
+        assertThat(summary.counters()).extracting(HeavyHitters.Counter::key).containsExactly(1L, 3L);
+        assertThat(summary.counters().get(0).count()).isCloseTo(2, within(1e-9));
+        assertThat(summary.counters().get(1).count()).isCloseTo(1.5, within(1e-9));
+        assertThat(summary.counters().get(1).error()).isCloseTo(0.5, within(1e-9));
+
+        // The heap is still ordered: the smallest scaled counter is the one evicted next
+        summary.add(4, 1);
+        assertThat(summary.counters()).extracting(HeavyHitters.Counter::key).containsExactly(4L, 1L);
+    }
+
+    @Test
+    void clearEmptiesTheSummary() {
+        HeavyHitters summary = new HeavyHitters(2);
+        summary.add(1, 1);
+        summary.clear();
+
+        assertThat(summary.size()).isZero();
+        assertThat(summary.counters()).isEmpty();
+        summary.add(2, 1);
+        assertThat(summary.counters()).containsExactly(new HeavyHitters.Counter(2, 1, 0));
+    }
+}
@@ -0,0 +1,75 @@
+package com.storez.service;
+
+import com.storez.PostgresTest;
+import com.storez.TestData;
+import com.storez.repository.IdempotencyRecordRepository;
+import com.storez.service.IdempotencyService.Claim;
+import com.storez.service.IdempotencyService.KeyInProgressException;
+import com.storez.service.IdempotencyService.StoredResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Takeover rules of the claim statement. Rows are written through the repository as another (or a crashed)
+ * instance would have left them; this JVM has no local state for those keys.
+ */
+@PostgresTest
+class IdempotencyLeaseTest {
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    @Test
+    void keyOfACrashedRequestIsTakenOverOnceItsLeaseRunsOut() {
+        String id = TestData.tag("crashed");
+        LocalDateTime now = LocalDateTime.now();
+        repository.claim(id, now.minusMinutes(1), now.plusHours(24), now.minusSeconds(1));
+
+        Claim claim = idempotencyService.begin(id);
+
+        assertThat(claim.owner()).isTrue();
+        assertThat(repository.findById(id).orElseThrow().getLockedUntil()).isAfter(now);
+        idempotencyService.release(id);
+    }
+
+    @Test
+    void keyUnderALiveLeaseIsStillInProgress() {
+        String id = TestData.tag("running");
+        LocalDateTime now = LocalDateTime.now();
+        repository.claim(id, now, now.plusHours(24), now.plusMinutes(5));
+
+        assertThatThrownBy(() -> idempotencyService.begin(id)).isInstanceOf(KeyInProgressException.class);
+        assertThat(repository.claim(id, now, now.plusHours(24), now.plusMinutes(5))).isZero();
+    }
+
+    @Test
+    void completedKeyIsReplayedWhateverItsLease() {
+        String id = TestData.tag("completed");
+        assertThat(idempotencyService.begin(id).owner()).isTrue();
+        StoredResponse response = new StoredResponse(201, "application/json", "{\"id\":1}".getBytes(), "fp");
+        idempotencyService.complete(id, response);
+
+        // The lease of a completed row is long gone; it must not make the key claimable again
+        LocalDateTime later = LocalDateTime.now().plusHours(1);
+        assertThat(repository.claim(id, later, later.plusHours(24), later.plusSeconds(30))).isZero();
+    }
+
+    @Test
+    void expiredKeyIsClaimedAgain() {
+        String id = TestData.tag("expired");
+        assertThat(idempotencyService.begin(id).owner()).isTrue();
+        idempotencyService.complete(id, new StoredResponse(201, null, null, "fp"));
+
+        LocalDateTime afterTtl = LocalDateTime.now().plusDays(2);
+        assertThat(repository.claim(id, afterTtl, afterTtl.plusHours(24), afterTtl.plusSeconds(30))).isEqualTo(1);
+        assertThat(repository.findById(id).orElseThrow().isCompleted()).isFalse();
+    }
+}
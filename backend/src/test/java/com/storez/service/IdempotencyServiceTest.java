@@ -0,0 +1,73 @@
+package com.storez.service;
+
+import com.storez.repository.IdempotencyRecordRepository;
+import com.storez.service.IdempotencyService.Claim;
+import com.storez.service.IdempotencyService.StoredResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdempotencyServiceTest {
+
+    private final IdempotencyRecordRepository repository = mock(IdempotencyRecordRepository.class);
+    private final IdempotencyService service = new IdempotencyService(
+            repository, Duration.ofHours(24), Duration.ofSeconds(30), Duration.ofSeconds(2), 100);
+
+    @Test
+    void failedClaimDoesNotLeaveTheKeyInFlight() throws Exception {
+        when(repository.claim(eq("key"), any(), any(), any()))
+                .thenThrow(new DataAccessResourceFailureException("database down"))
+                .thenReturn(1);
+
+        assertThatThrownBy(() -> service.begin("key")).isInstanceOf(DataAccessResourceFailureException.class);
+
+        // A retry claims the key at once instead of waiting on the failed attempt until the timeout
+        Claim retry = CompletableFuture.supplyAsync(() -> service.begin("key")).get(1, TimeUnit.SECONDS);
+        assertThat(retry.owner()).isTrue();
+    }
+
+    @Test
+    void localDuplicateGetsTheOwnersResponse() throws Exception {
+        when(repository.claim(eq("key"), any(), any(), any())).thenReturn(1);
+        when(repository.findById("key")).thenReturn(Optional.empty());
+        assertThat(service.begin("key").owner()).isTrue();
+
+        CompletableFuture<Claim> duplicate = CompletableFuture.supplyAsync(() -> service.begin("key"));
+        StoredResponse response = new StoredResponse(201, "application/json", "{}".getBytes(), "fingerprint");
+        service.complete("key", response);
+
+        Claim replay = duplicate.get(1, TimeUnit.SECONDS);
+        assertThat(replay.owner()).isFalse();
+        assertThat(replay.replay()).isEqualTo(response);
+    }
+
+    @Test
+    void leasesOfRunningRequestsAreRenewedUntilTheyFinish() {
+        when(repository.claim(eq("key"), any(), any(), any())).thenReturn(1);
+        service.begin("key");
+
+        service.renewLeases();
+        verify(repository).renewLeases(eq(List.of("key")), any());
+
+        service.release("key");
+        clearInvocations(repository);
+        service.renewLeases();
+        verify(repository, never()).renewLeases(anyCollection(), any());
+    }
+}
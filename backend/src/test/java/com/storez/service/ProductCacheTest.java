@@ -0,0 +1,69 @@
+package com.storez.service;
+
+import com.storez.dto.ProductSnapshot;
+import com.storez.event.StockChangedEvent;
+import com.storez.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductCacheTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final ProductCache cache = new ProductCache(productRepository, 100, Duration.ofMinutes(10));
+
+    @Test
+    void bulkLoadIsCachedWhenNothingChanged() {
+        when(productRepository.findSnapshotsByIdIn(anyCollection())).thenReturn(List.of(product(1L, 10)));
+
+        assertThat(cache.findAll(List.of(1L))).containsEntry(1L, product(1L, 10));
+        assertThat(cache.findAll(List.of(1L))).containsEntry(1L, product(1L, 10));
+
+        verify(productRepository, times(1)).findSnapshotsByIdIn(anyCollection());
+    }
+
+    @Test
+    void snapshotReadBeforeAnInvalidationIsNotCached() {
+        // The write commits and evicts the product after the bulk query read it, before it is stored
+        when(productRepository.findSnapshotsByIdIn(anyCollection()))
+                .thenAnswer(invocation -> {
+                    cache.onStockChanged(new StockChangedEvent(List.of(1L)));
+                    return List.of(product(1L, 10), product(2L, 20));
+                })
+                .thenReturn(List.of(product(1L, 9)));
+
+        Map<Long, ProductSnapshot> first = cache.findAll(List.of(1L, 2L));
+        // This request still gets what it read
+        assertThat(first).containsEntry(1L, product(1L, 10));
+
+        Map<Long, ProductSnapshot> second = cache.findAll(List.of(1L, 2L));
+        assertThat(second).containsEntry(1L, product(1L, 9)).containsEntry(2L, product(2L, 20));
+        verify(productRepository, times(2)).findSnapshotsByIdIn(anyCollection());
+    }
+
+    @Test
+    void invalidationAfterTheStoreEvicts() {
+        when(productRepository.findSnapshotsByIdIn(anyCollection()))
+                .thenReturn(List.of(product(1L, 10)))
+                .thenReturn(List.of(product(1L, 9)));
+
+        cache.findAll(List.of(1L));
+        cache.onStockChanged(new StockChangedEvent(List.of(1L)));
+
+        assertThat(cache.findAll(List.of(1L))).containsEntry(1L, product(1L, 9));
+    }
+
+    private static ProductSnapshot product(Long id, int stock) {
+        return new ProductSnapshot(id, "Product " + id, "Description", 5, null, "Category", stock, "APPROVED",
+                1L, "Supplier");
+    }
+}
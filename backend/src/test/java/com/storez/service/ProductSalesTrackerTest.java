@@ -0,0 +1,208 @@
+package com.storez.service;
+
+import com.storez.config.SingleInstanceLock;
+import com.storez.event.OrderPlacedEvent;
+import com.storez.model.ProductRanking;
+import com.storez.model.ProductSalesCounter;
+import com.storez.repository.OrderItemRepository;
+import com.storez.repository.OrderItemRepository.ProductUnits;
+import com.storez.repository.OrderRepository;
+import com.storez.repository.ProductSalesCounterRepository;
+import com.storez.service.ProductSalesTracker.Ranked;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductSalesTrackerTest {
+
+    private static final Duration HALF_LIFE = Duration.ofHours(1);
+
+    private final ProductSalesCounterRepository counterRepository = mock(ProductSalesCounterRepository.class);
+    private final OrderItemRepository orderItemRepository = mock(OrderItemRepository.class);
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final SingleInstanceLock lock = mock(SingleInstanceLock.class);
+
+    @Test
+    void decayHalvesTheWeightEveryHalfLife() {
+        double halfLife = HALF_LIFE.toMillis();
+        assertThat(ProductSalesTracker.decay(0, halfLife)).isEqualTo(1);
+        assertThat(ProductSalesTracker.decay(halfLife, halfLife)).isCloseTo(0.5, within(1e-12));
+        assertThat(ProductSalesTracker.decay(3 * halfLife, halfLife)).isCloseTo(0.125, within(1e-12));
+    }
+
+    @Test
+    void trendingScoreDecaysWithTheAgeOfTheOrder() {
+        ProductSalesTracker tracker = tracker(HALF_LIFE);
+        LocalDateTime now = LocalDateTime.now();
+        tracker.onOrderPlaced(order(1L, now, Map.of(10L, 4)));
+        tracker.onOrderPlaced(order(2L, now.minus(HALF_LIFE), Map.of(20L, 4)));
+        // Redelivered: counted once
+        tracker.onOrderPlaced(order(2L, now.minus(HALF_LIFE), Map.of(20L, 4)));
+
+        assertThat(score(tracker, ProductRanking.BEST_SELLERS, 10L)).isEqualTo(4);
+        assertThat(score(tracker, ProductRanking.BEST_SELLERS, 20L)).isEqualTo(4);
+        assertThat(score(tracker, ProductRanking.TRENDING, 10L)).isCloseTo(4, within(0.01));
+        assertThat(score(tracker, ProductRanking.TRENDING, 20L)).isCloseTo(2, within(0.01));
+    }
+
+    @Test
+    void renormalizationKeepsTheRelativeScores() {
+        // 40 half-lives between the two orders: the second one moves the landmark and rescales the first
+        ProductSalesTracker tracker = tracker(Duration.ofSeconds(1));
+        LocalDateTime now = LocalDateTime.now();
+        tracker.onOrderPlaced(order(1L, now, Map.of(10L, 1)));
+        tracker.onOrderPlaced(order(2L, now.plusSeconds(40), Map.of(20L, 1)));
+
+        List<Ranked> trending = tracker.ranking(ProductRanking.TRENDING);
+        assertThat(trending).extracting(Ranked::productId).containsExactly(20L, 10L);
+        double ratio = trending.get(0).score() / trending.get(1).score();
+        assertThat(ratio).isCloseTo(Math.pow(2, 40), within(Math.pow(2, 40) * 1e-3));
+    }
+
+    @Test
+    void restoreDecaysTrendingCountersForTheTimeSpentDown() {
+        LocalDateTime twoHalfLivesAgo = LocalDateTime.now().minus(HALF_LIFE.multipliedBy(2));
+        when(counterRepository.findAll()).thenReturn(List.of(
+                row(ProductRanking.BEST_SELLERS, 10L, 8, 0, twoHalfLivesAgo),
+                row(ProductRanking.TRENDING, 10L, 8, 2, twoHalfLivesAgo)));
+        ProductSalesTracker tracker = tracker(HALF_LIFE);
+        tracker.restore();
+
+        assertThat(score(tracker, ProductRanking.BEST_SELLERS, 10L)).isEqualTo(8);
+        assertThat(score(tracker, ProductRanking.TRENDING, 10L)).isCloseTo(2, within(0.01));
+
+        // The error decays with the score and is written back as of the new checkpoint
+        tracker.onOrderPlaced(order(1L, LocalDateTime.now(), Map.of(30L, 1)));
+        ProductSalesCounter trending = checkpoint(tracker).stream()
+                .filter(row -> row.getRanking() == ProductRanking.TRENDING && row.getProductId() == 10L)
+                .findFirst().orElseThrow();
+        assertThat(trending.getScore()).isCloseTo(2, within(0.01));
+        assertThat(trending.getError()).isCloseTo(0.5, within(0.01));
+    }
+
+    @Test
+    void checkpointRestoresToTheSameRankings() {
+        ProductSalesTracker tracker = tracker(HALF_LIFE);
+        LocalDateTime now = LocalDateTime.now();
+        tracker.onOrderPlaced(order(1L, now.minusMinutes(90), Map.of(10L, 6, 20L, 1)));
+        tracker.onOrderPlaced(order(2L, now, Map.of(20L, 2)));
+
+        List<ProductSalesCounter> rows = checkpoint(tracker);
+        when(counterRepository.findAll()).thenReturn(rows);
+        ProductSalesTracker restored = tracker(HALF_LIFE);
+        restored.restore();
+
+        for (ProductRanking ranking : ProductRanking.values()) {
+            List<Ranked> expected = tracker.ranking(ranking);
+            List<Ranked> actual = restored.ranking(ranking);
+            assertThat(actual).extracting(Ranked::productId)
+                    .containsExactlyElementsOf(expected.stream().map(Ranked::productId).toList());
+            for (int i = 0; i < expected.size(); i++) {
+                assertThat(actual.get(i).score()).isCloseTo(expected.get(i).score(), within(0.01));
+            }
+        }
+    }
+
+    @Test
+    void withoutTheSingleInstanceLockTheCheckpointIsNeitherReadNorWritten() {
+        when(lock.isHeld()).thenReturn(false);
+        ProductSalesTracker tracker = new ProductSalesTracker(counterRepository, orderItemRepository, orderRepository,
+                mock(PlatformTransactionManager.class), lock, 10, HALF_LIFE, 100);
+        tracker.restore();
+        tracker.onOrderPlaced(order(1L, LocalDateTime.now(), Map.of(10L, 1)));
+        tracker.checkpoint();
+
+        verify(orderItemRepository).sumUnitsByProduct(any(), anyDouble());
+        verify(counterRepository, never()).findAll();
+        verify(counterRepository, never()).deleteAllInBatch();
+        verify(counterRepository, never()).saveAll(any());
+        assertThat(score(tracker, ProductRanking.BEST_SELLERS, 10L)).isEqualTo(1);
+    }
+
+    @Test
+    void seededOrdersAreNotCountedAgainWhenTheirEventsArrive() {
+        // Orders 1 and 2 are in the order lines; order 2's event was still pending in the outbox
+        when(orderRepository.findNewestIds(any())).thenReturn(List.of(2L, 1L));
+        when(orderItemRepository.sumUnitsByProduct(any(), anyDouble())).thenReturn(List.of(units(10L, 5, 5)));
+        ProductSalesTracker tracker = tracker(HALF_LIFE);
+        // Delivered before the seed ran, and part of it too
+        tracker.onOrderPlaced(order(1L, LocalDateTime.now(), Map.of(10L, 3)));
+        tracker.restore();
+
+        tracker.onOrderPlaced(order(2L, LocalDateTime.now(), Map.of(10L, 2)));
+        assertThat(score(tracker, ProductRanking.BEST_SELLERS, 10L)).isEqualTo(5);
+        assertThat(score(tracker, ProductRanking.TRENDING, 10L)).isCloseTo(5, within(0.01));
+
+        // An order placed after the seed is counted
+        tracker.onOrderPlaced(order(3L, LocalDateTime.now(), Map.of(10L, 1)));
+        assertThat(score(tracker, ProductRanking.BEST_SELLERS, 10L)).isEqualTo(6);
+    }
+
+    private ProductSalesTracker tracker(Duration halfLife) {
+        when(lock.isHeld()).thenReturn(true);
+        return new ProductSalesTracker(counterRepository, orderItemRepository, orderRepository,
+                mock(PlatformTransactionManager.class), lock, 10, halfLife, 100);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ProductSalesCounter> checkpoint(ProductSalesTracker tracker) {
+        ArgumentCaptor<List<ProductSalesCounter>> rows = ArgumentCaptor.forClass(List.class);
+        tracker.checkpoint();
+        verify(counterRepository).saveAll(rows.capture());
+        return rows.getValue();
+    }
+
+    private static double score(ProductSalesTracker tracker, ProductRanking ranking, Long productId) {
+        return tracker.ranking(ranking).stream()
+                .filter(ranked -> ranked.productId().equals(productId))
+                .findFirst().orElseThrow().score();
+    }
+
+    private static OrderPlacedEvent order(Long orderId, LocalDateTime createdAt, Map<Long, Integer> units) {
+        return new OrderPlacedEvent(orderId, 1L, createdAt, 0, Map.of(), units);
+    }
+
+    private static ProductUnits units(Long productId, long units, double recentUnits) {
+        return new ProductUnits() {
+            @Override
+            public Long getProductId() {
+                return productId;
+            }
+
+            @Override
+            public long getUnits() {
+                return units;
+            }
+
+            @Override
+            public double getRecentUnits() {
+                return recentUnits;
+            }
+        };
+    }
+
+    private static ProductSalesCounter row(ProductRanking ranking, Long productId, double score, double error,
+                                           LocalDateTime checkpointAt) {
+        return ProductSalesCounter.builder()
+                .ranking(ranking)
+                .productId(productId)
+                .score(score)
+                .error(error)
+                .checkpointAt(checkpointAt)
+                .build();
+    }
+}
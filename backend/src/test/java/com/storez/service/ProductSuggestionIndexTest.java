@@ -0,0 +1,156 @@
+package com.storez.service;
+
+import com.storez.event.ProductChangedEvent;
+import com.storez.event.ProductChangedEvent.Type;
+import com.storez.model.ProductRanking;
+import com.storez.repository.ProductRepository;
+import com.storez.repository.ProductRepository.NameAndCategory;
+import com.storez.service.ProductSalesTracker.Ranked;
+import com.storez.service.ProductSuggestionIndex.Suggestion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductSuggestionIndexTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final ProductSalesTracker productSalesTracker = mock(ProductSalesTracker.class);
+    private final ProductSuggestionIndex index = new ProductSuggestionIndex(productRepository, productSalesTracker);
+
+    @BeforeEach
+    void buildIndex() {
+        when(productRepository.findApprovedNames()).thenReturn(List.of(
+                product(1L, "Yoga Mat", "Sports"),
+                product(2L, "Yoga Block", "Sports"),
+                product(3L, "Matcha Tea", "Grocery"),
+                product(4L, "Mat", null)
+        ));
+        index.rebuild();
+    }
+
+    @Test
+    void matchesTheStartOfEveryWord() {
+        // Matches at the start of the name first, then on a later word
+        assertThat(texts("mat")).containsExactly("Mat", "Matcha Tea", "Yoga Mat");
+        assertThat(texts("tea")).containsExactly("Matcha Tea");
+        assertThat(texts("block")).containsExactly("Yoga Block");
+    }
+
+    @Test
+    void bestSellersRankFirstAmongEqualMatches() {
+        when(productSalesTracker.ranking(ProductRanking.BEST_SELLERS)).thenReturn(List.of(
+                new Ranked(2L, 50), new Ranked(3L, 20), new Ranked(1L, 5)));
+        index.refreshPopularity();
+
+        assertThat(texts("yoga")).containsExactly("Yoga Block", "Yoga Mat");
+        // Sales order the products matched at the start of their name; a later word still comes last
+        assertThat(texts("mat")).containsExactly("Matcha Tea", "Mat", "Yoga Mat");
+        assertThat(index.suggest("yoga", 1)).containsExactly(new Suggestion("Yoga Block", "product", 2L));
+    }
+
+    @Test
+    void doesNotMatchInsideAWord() {
+        assertThat(texts("at")).isEmpty();
+        assertThat(texts("oga")).isEmpty();
+    }
+
+    @Test
+    void prefixBoundaries() {
+        // The whole key is its own prefix; one more character matches nothing
+        assertThat(texts("yoga mat")).containsExactly("Yoga Mat");
+        assertThat(texts("yoga mats")).isEmpty();
+        // Keys right before and after the prefix range are not returned
+        assertThat(texts("matc")).containsExactly("Matcha Tea");
+        assertThat(texts("z")).isEmpty();
+        assertThat(texts("a")).isEmpty();
+        assertThat(texts("")).isEmpty();
+        assertThat(texts("   ")).isEmpty();
+    }
+
+    @Test
+    void foldsCaseAndKeepsTheOriginalLabel() {
+        assertThat(texts("YOGA")).containsExactly("Yoga Block", "Yoga Mat");
+        assertThat(texts("  yOgA b ")).containsExactly("Yoga Block");
+        assertThat(index.suggest("SPO", 8)).containsExactly(new Suggestion("Sports", "category", null));
+    }
+
+    @Test
+    void limitIsClampedAndLabelsAreDistinct() {
+        assertThat(index.suggest("yoga", 1)).hasSize(1);
+        assertThat(index.suggest("yoga", 0)).hasSize(1);
+        // "Sports" is indexed once however many products it has
+        assertThat(texts("sports")).containsExactly("Sports");
+        assertThat(index.suggest("mat", 100)).hasSizeLessThanOrEqualTo(ProductSuggestionIndex.MAX_LIMIT);
+    }
+
+    @Test
+    void approvedProductIsAddedAndRenamed() {
+        index.onProductChanged(event(Type.CREATED, 5L, "Jump Rope", "Fitness", "APPROVED"));
+        assertThat(index.suggest("rope", 8)).containsExactly(new Suggestion("Jump Rope", "product", 5L));
+        assertThat(texts("fit")).containsExactly("Fitness");
+
+        index.onProductChanged(event(Type.UPDATED, 5L, "Skipping Rope", "Fitness", "APPROVED"));
+        assertThat(texts("jump")).isEmpty();
+        assertThat(texts("rope")).containsExactly("Skipping Rope");
+    }
+
+    @Test
+    void productLeavingTheCatalogIsRemoved() {
+        index.onProductChanged(event(Type.UPDATED, 3L, "Matcha Tea", "Grocery", "REJECTED"));
+        assertThat(texts("matcha")).isEmpty();
+        // Its category had no other product
+        assertThat(texts("groc")).isEmpty();
+
+        index.onProductChanged(event(Type.DELETED, 4L, "Mat", null, "APPROVED"));
+        assertThat(texts("mat")).containsExactly("Yoga Mat");
+    }
+
+    @Test
+    void categoryStaysWhileAnotherProductUsesIt() {
+        index.onProductChanged(event(Type.DELETED, 1L, "Yoga Mat", "Sports", "APPROVED"));
+        assertThat(texts("sports")).containsExactly("Sports");
+
+        index.onProductChanged(event(Type.DELETED, 2L, "Yoga Block", "Sports", "APPROVED"));
+        assertThat(texts("sports")).isEmpty();
+        assertThat(texts("yoga")).isEmpty();
+    }
+
+    @Test
+    void pendingProductIsNotIndexed() {
+        index.onProductChanged(event(Type.CREATED, 6L, "Kettlebell", "Weights", "PENDING"));
+        assertThat(texts("kettle")).isEmpty();
+        assertThat(texts("weights")).isEmpty();
+    }
+
+    private List<String> texts(String prefix) {
+        return index.suggest(prefix, ProductSuggestionIndex.MAX_LIMIT).stream().map(Suggestion::text).toList();
+    }
+
+    private static ProductChangedEvent event(Type type, Long id, String name, String category, String status) {
+        return new ProductChangedEvent(type, id, name, category, status, 1L);
+    }
+
+    private static NameAndCategory product(Long id, String name, String category) {
+        return new NameAndCategory() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getCategory() {
+                return category;
+            }
+        };
+    }
+}
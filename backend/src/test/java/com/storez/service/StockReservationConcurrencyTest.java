@@ -0,0 +1,133 @@
+package com.storez.service;
+
+import com.storez.PostgresTest;
+import com.storez.TestData;
+import com.storez.exception.InsufficientStockException;
+import com.storez.model.Role;
+import com.storez.model.Supplier;
+import com.storez.model.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Many concurrent checkouts of one hot product: exactly the starting stock is sold, never more.
+ * Every order goes through OrderService in its own transaction, released at the same time by a latch.
+ *
+ * The run is timed from the latch to the last worker and compared with the same checkout placed one at a
+ * time on an uncontended product, in the same JVM and database: the conditional UPDATE only holds the row
+ * from the reservation to the commit, so 16 threads on one hot row must still outrun a single thread.
+ * Placed and refused orders per second are published to the test report.
+ */
+@PostgresTest
+class StockReservationConcurrencyTest {
+
+    private static final int STOCK = 25;
+    private static final int THREADS = 16;
+    private static final int ORDERS_PER_THREAD = 10;
+    private static final int WARMUP_ORDERS = 20;
+    private static final int SERIAL_ORDERS = 50;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void hotProductIsNeverOversold(TestReporter reporter) throws Exception {
+        Supplier supplier = testData.supplier();
+        Long hot = testData.product(supplier, "stock-race", "Hot product", 20, STOCK).getId();
+        // A second product on every order: a shortfall on the hot one must roll its reservation back too
+        Long other = testData.product(supplier, "stock-race", "Other product", 5, THREADS * ORDERS_PER_THREAD).getId();
+        User customer = testData.user(Role.USER);
+
+        // Baseline: one thread, no contention (after a warm-up, so neither run pays for JIT and pool start)
+        Long uncontended = testData.product(supplier, "stock-race", "Uncontended product", 5,
+                WARMUP_ORDERS + SERIAL_ORDERS).getId();
+        for (int i = 0; i < WARMUP_ORDERS; i++) {
+            orderService.placeOrder(customer, List.of(new OrderService.Line(uncontended, 1)));
+        }
+        long serialStarted = System.nanoTime();
+        for (int i = 0; i < SERIAL_ORDERS; i++) {
+            orderService.placeOrder(customer, List.of(new OrderService.Line(uncontended, 1)));
+        }
+        double serialPerSecond = SERIAL_ORDERS / ((System.nanoTime() - serialStarted) / 1e9);
+
+        AtomicInteger placed = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long elapsedNanos;
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                        try {
+                            orderService.placeOrder(customer, List.of(
+                                    new OrderService.Line(other, 1), new OrderService.Line(hot, 1)));
+                            placed.incrementAndGet();
+                        } catch (InsufficientStockException e) {
+                            assertThat(e.getProductId()).isEqualTo(hot);
+                            refused.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            long started = System.nanoTime();
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(2, TimeUnit.MINUTES);
+            }
+            elapsedNanos = System.nanoTime() - started;
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(placed.get()).isEqualTo(STOCK);
+        assertThat(refused.get()).isEqualTo(THREADS * ORDERS_PER_THREAD - STOCK);
+        assertThat(stock(hot)).isZero();
+        assertThat(unitsOrdered(hot)).isEqualTo(STOCK);
+        // Refused orders left nothing behind
+        assertThat(stock(other)).isEqualTo(THREADS * ORDERS_PER_THREAD - STOCK);
+        assertThat(unitsOrdered(other)).isEqualTo(STOCK);
+
+        double seconds = elapsedNanos / 1e9;
+        double attemptsPerSecond = THREADS * ORDERS_PER_THREAD / seconds;
+        String throughput = String.format(Locale.ROOT,
+                "hot product: %d placed (%.0f/s), %d refused (%.0f/s), %.0f attempts/s in %d ms; "
+                        + "one thread, uncontended: %.0f orders/s",
+                placed.get(), placed.get() / seconds, refused.get(), refused.get() / seconds, attemptsPerSecond,
+                TimeUnit.NANOSECONDS.toMillis(elapsedNanos), serialPerSecond);
+        reporter.publishEntry("hotProductThroughput", throughput);
+        assertThat(attemptsPerSecond).as(throughput).isGreaterThan(serialPerSecond);
+    }
+
+    private int stock(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT stock FROM product WHERE id = ?", Integer.class, productId);
+    }
+
+    private int unitsOrdered(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(quantity), 0) FROM order_item WHERE product_id = ?",
+                Integer.class, productId);
+    }
+}
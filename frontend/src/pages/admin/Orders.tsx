@@ -5,15 +5,33 @@ import { ClipboardList, Clock, PackageCheck, Truck, XCircle } from "lucide-react
 import { api } from "@/services/api";
 import { formatMoney } from "@/utils/format";
 
+type AdminOrderResponse = {
+    orders: any[];
+    currentPage: number;
+    totalPages: number;
+    totalItems: number;
+};
+
+const PAGE_SIZE = 20;
+
 export default function AdminOrders() {
     const [orders, setOrders] = useState<any[]>([]);
     const [loading, setLoading] = useState(true);
     const [error, setError] = useState<string | null>(null);
+    const [currentPage, setCurrentPage] = useState(1);
+    const [totalPages, setTotalPages] = useState(1);
+    const [totalItems, setTotalItems] = useState(0);
 
-    const load = async () => {
+    const load = async (pageToLoad = 1) => {
         try {
-            const res = await api.get("/admin/orders", { withCredentials: true });
-            setOrders(res.data);
+            const res = await api.get<AdminOrderResponse>("/admin/orders", {
+                params: { page: pageToLoad, size: PAGE_SIZE },
+                withCredentials: true,
+            });
+            setOrders(res.data.orders || []);
+            setCurrentPage(res.data.currentPage || pageToLoad);
+            setTotalPages(Math.max(res.data.totalPages ?? 1, 1));
+            setTotalItems(res.data.totalItems || 0);
             setError(null);
         } catch {
             setOrders([]);
@@ -23,13 +41,24 @@ export default function AdminOrders() {
         }
     };
 
-    useEffect(() => { load(); }, []);
+    useEffect(() => { load(1); }, []);
 
     const updateStatus = async (id: number, status: string) => {
         await api.put(`/admin/orders/${id}/status?status=${status}`, {}, { withCredentials: true });
-        load();
+        load(currentPage);
+    };
+
+    const goToPage = (pageNumber: number) => {
+        const safePage = Math.min(Math.max(pageNumber, 1), totalPages || 1);
+        if (safePage === currentPage) return;
+        load(safePage);
     };
 
+    const isPrevDisabled = currentPage <= 1;
+    const isNextDisabled = currentPage >= totalPages;
+    const showingFrom = totalItems === 0 ? 0 : (currentPage - 1) * PAGE_SIZE + 1;
+    const showingTo = totalItems === 0 ? 0 : Math.min(currentPage * PAGE_SIZE, totalItems);
+
     if (loading) return <div className="card p-6">Loading orders...</div>;
 
     return (
@@ -117,6 +146,32 @@ export default function AdminOrders() {
                     ))}
                     </tbody>
                 </table>
+                <div className="flex flex-col gap-3 border-t border-gray-100 bg-gray-50 px-4 py-3 text-sm text-gray-600 sm:flex-row sm:items-center sm:justify-between">
+                    <span>
+                        {totalItems === 0
+                            ? "No orders yet."
+                            : `Showing ${showingFrom}-${showingTo} of ${totalItems} orders`}
+                    </span>
+                    <div className="flex items-center gap-2">
+                        <button
+                            className="btn btn-secondary text-xs disabled:opacity-50 disabled:pointer-events-none"
+                            onClick={() => goToPage(currentPage - 1)}
+                            disabled={isPrevDisabled}
+                        >
+                            Previous
+                        </button>
+                        <span className="text-xs font-medium text-gray-500">
+                            Page {Math.min(currentPage, totalPages || 1)} of {Math.max(totalPages, 1)}
+                        </span>
+                        <button
+                            className="btn btn-secondary text-xs disabled:opacity-50 disabled:pointer-events-none"
+                            onClick={() => goToPage(currentPage + 1)}
+                            disabled={isNextDisabled || totalItems === 0}
+                        >
+                            Next
+                        </button>
+                    </div>
+                </div>
             </div>
         </motion.div>
     );
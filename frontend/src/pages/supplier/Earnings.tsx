@@ -2,17 +2,25 @@ import { useEffect, useState } from "react";
 import { api } from "@/services/api";
 import { formatMoney } from "@/utils/format";
 
+const PAGE_SIZE = 20;
+
 export default function Earnings() {
     const [earnings, setEarnings] = useState<any[]>([]);
     const [total, setTotal] = useState(0);
+    const [currentPage, setCurrentPage] = useState(1);
+    const [totalPages, setTotalPages] = useState(1);
 
-    useEffect(() => {
-        api.get("/supplier/earnings", { withCredentials: true })
+    const load = (pageToLoad = 1) => {
+        api.get("/supplier/earnings", { params: { page: pageToLoad, size: PAGE_SIZE }, withCredentials: true })
             .then(r => {
                 setEarnings(r.data.details || []);
                 setTotal(r.data.total || 0);
+                setCurrentPage(r.data.currentPage || pageToLoad);
+                setTotalPages(Math.max(r.data.totalPages ?? 1, 1));
             });
-    }, []);
+    };
+
+    useEffect(() => { load(1); }, []);
 
     return (
         <div className="space-y-6">
@@ -44,6 +52,28 @@ export default function Earnings() {
                     </tbody>
                 </table>
             </div>
+
+            {totalPages > 1 && (
+                <div className="flex items-center justify-between text-sm text-gray-600">
+                    <span>Page {currentPage} of {totalPages}</span>
+                    <div className="flex items-center gap-2">
+                        <button
+                            className="btn btn-secondary text-xs disabled:opacity-50 disabled:pointer-events-none"
+                            onClick={() => load(currentPage - 1)}
+                            disabled={currentPage <= 1}
+                        >
+                            Previous
+                        </button>
+                        <button
+                            className="btn btn-secondary text-xs disabled:opacity-50 disabled:pointer-events-none"
+                            onClick={() => load(currentPage + 1)}
+                            disabled={currentPage >= totalPages}
+                        >
+                            Next
+                        </button>
+                    </div>
+                </div>
+            )}
         </div>
     );
 }
@@ -4,15 +4,27 @@ import { formatMoney } from "@/utils/format";
 import { getImageUrl } from "@/utils/image";
 import { Clock, PackageCheck, Truck, XCircle, ShoppingBag, User } from "lucide-react";
 
+const PAGE_SIZE = 20;
+
 export default function SupplierOrders() {
     const [orders, setOrders] = useState<any[]>([]);
     const [loading, setLoading] = useState(true);
+    const [currentPage, setCurrentPage] = useState(1);
+    const [totalPages, setTotalPages] = useState(1);
+    const [totalItems, setTotalItems] = useState(0);
 
-    useEffect(() => {
-        api.get("/supplier/orders", { withCredentials: true })
-            .then(res => setOrders(res.data || []))
+    const load = (pageToLoad = 1) => {
+        api.get("/supplier/orders", { params: { page: pageToLoad, size: PAGE_SIZE }, withCredentials: true })
+            .then(res => {
+                setOrders(res.data.orders || []);
+                setCurrentPage(res.data.currentPage || pageToLoad);
+                setTotalPages(Math.max(res.data.totalPages ?? 1, 1));
+                setTotalItems(res.data.totalItems || 0);
+            })
             .finally(() => setLoading(false));
-    }, []);
+    };
+
+    useEffect(() => { load(1); }, []);
 
     if (loading) return <div className="card p-6">Loading orders...</div>;
 
@@ -21,7 +33,7 @@ export default function SupplierOrders() {
             <div className="flex items-center justify-between">
                 <h1 className="text-3xl font-bold text-brand-700">Orders Received</h1>
                 <span className="text-gray-500 text-sm">
-                    {orders.length} order{orders.length !== 1 && "s"}
+                    {totalItems} order{totalItems !== 1 && "s"}
                 </span>
             </div>
 
@@ -69,7 +81,7 @@ export default function SupplierOrders() {
                                             </div>
                                         </div>
                                         <div className="font-semibold">
-                                            {formatMoney(item.product?.price * item.quantity)}
+                                            {formatMoney(item.lineTotal ?? 0)}
                                         </div>
                                     </div>
                                 ))}
@@ -85,6 +97,28 @@ export default function SupplierOrders() {
                     ))}
                 </div>
             )}
+
+            {totalPages > 1 && (
+                <div className="flex items-center justify-between text-sm text-gray-600">
+                    <span>Page {currentPage} of {totalPages}</span>
+                    <div className="flex items-center gap-2">
+                        <button
+                            className="btn btn-secondary text-xs disabled:opacity-50 disabled:pointer-events-none"
+                            onClick={() => load(currentPage - 1)}
+                            disabled={currentPage <= 1}
+                        >
+                            Previous
+                        </button>
+                        <button
+                            className="btn btn-secondary text-xs disabled:opacity-50 disabled:pointer-events-none"
+                            onClick={() => load(currentPage + 1)}
+                            disabled={currentPage >= totalPages}
+                        >
+                            Next
+                        </button>
+                    </div>
+                </div>
+            )}
         </div>
     );
 }
@@ -13,28 +13,38 @@ interface Order {
     items?: any[];
 }
 
+const PAGE_SIZE = 10;
+
 export default function UserOrders() {
     const [orders, setOrders] = useState<Order[]>([]);
     const [loading, setLoading] = useState(true);
+    const [currentPage, setCurrentPage] = useState(1);
+    const [totalPages, setTotalPages] = useState(1);
+    const [totalItems, setTotalItems] = useState(0);
+
+    const load = async (pageToLoad = 1) => {
+        try {
+            const res = await api.get("/user/orders", {
+                params: { page: pageToLoad, size: PAGE_SIZE },
+                withCredentials: true
+            });
+            // Total stored at checkout (prices paid, not current prices)
+            const ordersWithTotal = (res.data.orders || []).map((order: any) => ({
+                ...order,
+                total: order.total ?? 0
+            }));
+            setOrders(ordersWithTotal);
+            setCurrentPage(res.data.currentPage || pageToLoad);
+            setTotalPages(Math.max(res.data.totalPages ?? 1, 1));
+            setTotalItems(res.data.totalItems || 0);
+        } catch (error) {
+            console.error("Failed to load orders:", error);
+        } finally {
+            setLoading(false);
+        }
+    };
 
-    useEffect(() => {
-        (async () => {
-            try {
-                const res = await api.get("/user/orders", { withCredentials: true });
-                // Calculate total for each order
-                const ordersWithTotal = (res.data || []).map((order: any) => ({
-                    ...order,
-                    total: order.items?.reduce((sum: number, item: any) =>
-                        sum + (item.product?.price || 0) * item.quantity, 0) || 0
-                }));
-                setOrders(ordersWithTotal);
-            } catch (error) {
-                console.error("Failed to load orders:", error);
-            } finally {
-                setLoading(false);
-            }
-        })();
-    }, []);
+    useEffect(() => { load(1); }, []);
 
     if (loading) return <div className="card p-6">Loading orders...</div>;
 
@@ -49,7 +59,7 @@ export default function UserOrders() {
                 <div>
                     <h1 className="text-3xl font-bold text-blue-700">My Orders</h1>
                     <p className="text-gray-600 text-sm">
-                        {orders.length} order{orders.length !== 1 && "s"}
+                        {totalItems} order{totalItems !== 1 && "s"}
                     </p>
                 </div>
             </div>
@@ -94,11 +104,11 @@ export default function UserOrders() {
                                             <div className="flex-1">
                                                 <div className="font-medium text-gray-900">{item.product?.name}</div>
                                                 <div className="text-sm text-gray-600">
-                                                    Quantity: {item.quantity} × {formatMoney(item.product?.price || 0)}
+                                                    Quantity: {item.quantity} × {formatMoney(item.unitPrice ?? 0)}
                                                 </div>
                                             </div>
                                             <div className="font-semibold text-gray-900">
-                                                {formatMoney((item.product?.price || 0) * item.quantity)}
+                                                {formatMoney(item.lineTotal ?? 0)}
                                             </div>
                                         </div>
                                     ))}
@@ -113,6 +123,28 @@ export default function UserOrders() {
                     ))}
                 </div>
             )}
+
+            {totalPages > 1 && (
+                <div className="flex items-center justify-between text-sm text-gray-600">
+                    <span>Page {currentPage} of {totalPages}</span>
+                    <div className="flex items-center gap-2">
+                        <button
+                            className="btn btn-secondary text-xs disabled:opacity-50 disabled:pointer-events-none"
+                            onClick={() => load(currentPage - 1)}
+                            disabled={currentPage <= 1}
+                        >
+                            Previous
+                        </button>
+                        <button
+                            className="btn btn-secondary text-xs disabled:opacity-50 disabled:pointer-events-none"
+                            onClick={() => load(currentPage + 1)}
+                            disabled={currentPage >= totalPages}
+                        >
+                            Next
+                        </button>
+                    </div>
+                </div>
+            )}
         </div>
     );
 }
@@ -127,7 +127,7 @@ mock.onPatch(/\/admin\/users\/\w+\/toggle$/).reply(config => {
 })
 mock.onGet(/\/admin\/suppliers.*/).reply(200, suppliers)
 mock.onGet(/\/admin\/products.*/).reply(200, products)
-mock.onGet('/admin/orders').reply(200, orders)
+mock.onGet('/admin/orders').reply(200, { orders, currentPage: 1, totalPages: 1, totalItems: orders.length, hasNext: false })
 mock.onGet('/admin/stats').reply(200, {
   totalUsers: users.length,
   totalSuppliers: suppliers.filter(s => s.status === 'APPROVED').length,